@@ -0,0 +1,95 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import lib.DeltaStepping;
+import lib.DijkstraBatch;
+import lib.MyGraph;
+
+/**
+ * This class measures the scaling of DeltaStepping from 1 to N workers, where N is the number of available
+ * processors, against the sequential heap search of DijkstraBatch on the same graph. The speedup column is
+ * the time of the sequential search divided by the time of the row.
+ *
+ * Then the bucket width is changed from a quarter to 4 times the width that the engine chooses, on N
+ * workers, to show how delta trades phases against repeated relaxations.
+ *
+ * @author Yusuf Arslan
+ */
+public class DeltaSteppingBenchmark {
+
+    private static final int[] SIZES = { 64_000, 256_000 };
+
+    /**
+     * Factors of the chosen delta that are measured.
+     */
+    private static final double[] DELTA_FACTORS = { 0.25, 0.5, 2, 4 };
+
+    private static final GraphGenerator[] GENERATORS = {
+        GraphGenerator.RANDOM, GraphGenerator.GRID, GraphGenerator.POWER_LAW
+    };
+
+    private static final int WARM_UP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.println("----- Delta-Stepping Benchmark -----" + "\n");
+        int processors = Runtime.getRuntime().availableProcessors();
+        Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+        System.out.printf("%-10s %9s %9s %-9s %8s %10s %14s %9s%n", "graph", "vertices", "edges", "engine",
+                          "workers", "delta", "ns/op", "speedup");
+        for (GraphGenerator generator : GENERATORS) {
+            for (int n : SIZES) {
+                EdgeList edges = generator.generate(n, new Random(n));
+                MyGraph graph = edges.toGraph(false, new Random(n));
+
+                DijkstraBatch dijkstra = new DijkstraBatch(graph, null);
+                double base = harness.measure(() -> {
+                    Harness.sink = dijkstra.tree(0);
+                    return 1;
+                }).nanosPerOp;
+                print(generator, edges, "dijkstra", 1, Double.NaN, base, base);
+
+                double chosen = new DeltaStepping(graph, null).getDelta();
+                for (int workers = 1; workers <= processors; workers = next(workers, processors))
+                    measure(harness, generator, edges, graph, chosen, workers, base);
+                for (double factor : DELTA_FACTORS)
+                    measure(harness, generator, edges, graph, chosen * factor, processors, base);
+                System.out.println();
+            }
+        }
+    }
+
+    /**
+     * Print the row of DeltaStepping with the given delta on a pool of the given size.
+     */
+    private static void measure(Harness harness, GraphGenerator generator, EdgeList edges, MyGraph graph,
+                                double delta, int workers, double base) {
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            DeltaStepping engine = new DeltaStepping(graph, delta, pool);
+            double nanos = harness.measure(() -> {
+                Harness.sink = engine.tree(0);
+                return 1;
+            }).nanosPerOp;
+            print(generator, edges, "delta", workers, delta, nanos, base);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void print(GraphGenerator generator, EdgeList edges, String engine, int workers, double delta,
+                              double nanos, double base) {
+        System.out.printf("%-10s %9d %9d %-9s %8d %10.3f %14.1f %9.2f%n", generator, edges.getNumV(), edges.size(),
+                          engine, workers, delta, nanos, base / nanos);
+    }
+
+    /**
+     * Return the next number of workers, doubling up to the number of processors.
+     */
+    private static int next(int workers, int processors) {
+        return (workers < processors && 2 * workers > processors) ? processors : 2 * workers;
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import lib.MyGraph;
+
+/**
+ * This class keeps the edges of a generated graph in parallel arrays, so the same edges can be inserted
+ * into many graphs without creating them again.
+ *
+ * @author Yusuf Arslan
+ */
+public final class EdgeList {
+
+    /**
+     * Values of the "Color" property of the vertices, used by filterVertices.
+     */
+    static final String[] COLORS = { "Red", "Green", "Blue", "Grey" };
+
+    private final int numV;
+    private int[] sources;
+    private int[] dests;
+    private double[] weights;
+    private int size;
+
+    /**
+     * Create an empty edge list for a graph with numV vertices.
+     */
+    EdgeList(int numV) {
+        this.numV = numV;
+        this.sources = new int[16];
+        this.dests = new int[16];
+        this.weights = new double[16];
+    }
+
+    /**
+     * Add an edge to the end of the list.
+     */
+    void add(int source, int dest, double weight) {
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, 2 * size);
+            dests = Arrays.copyOf(dests, 2 * size);
+            weights = Arrays.copyOf(weights, 2 * size);
+        }
+        sources[size] = source;
+        dests[size] = dest;
+        weights[size] = weight;
+        size++;
+    }
+
+    public int getNumV() {
+        return numV;
+    }
+
+    /**
+     * Return the number of edges.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getSource(int i) {
+        return sources[i];
+    }
+
+    public int getDest(int i) {
+        return dests[i];
+    }
+
+    public double getWeight(int i) {
+        return weights[i];
+    }
+
+    /**
+     * Create a graph with the vertices and no edges. Every vertex gets a random "Color" property.
+     * A directed graph has each edge from its source to its destination only.
+     */
+    public MyGraph emptyGraph(boolean directed, Random random) {
+        MyGraph graph = new MyGraph(numV, directed);
+        for (int id = 0; id < numV; id++)
+            graph.getVertex(id).addProperty("Color", COLORS[random.nextInt(COLORS.length)]);
+        return graph;
+    }
+
+    /**
+     * Create the graph with all of the edges, inserted at once with addEdges.
+     */
+    public MyGraph toGraph(boolean directed, Random random) {
+        MyGraph graph = emptyGraph(directed, random);
+        graph.addEdges(sources, dests, weights, size);
+        return graph;
+    }
+}
@@ -0,0 +1,262 @@
+package bench;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import lib.Edge;
+import lib.MyGraph;
+
+/**
+ * This class measures the allocation of the edge operations of MyGraph. Each operation is measured on
+ * undirected and directed random and power-law graphs, and its row has the time, the bytes allocated per
+ * operation, the allocation rate and the number of collections. A probe such as isEdge or removeEdge
+ * should not allocate at all, so its B/op column is expected to be 0.
+ *
+ * The last table is the heap that the edges of a graph keep, in bytes per edge, found from the used heap
+ * after a collection with and without the edges.
+ *
+ * The names of the operations can be given as arguments to measure only them, for example
+ * "java bench.EdgeStoreBenchmark isEdge retained".
+ *
+ * @author Yusuf Arslan
+ */
+public class EdgeStoreBenchmark {
+
+    private static final int[] SIZES = { 16_000, 64_000 };
+
+    private static final GraphGenerator[] GENERATORS = { GraphGenerator.RANDOM, GraphGenerator.POWER_LAW };
+
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Number of probes in one run, half of them are edges of the graph.
+     */
+    private static final int QUERIES = 10_000;
+
+    /**
+     * Number of vertices of the graph whose retained heap is measured.
+     */
+    private static final int RETAINED_SIZE = 256_000;
+
+    /**
+     * Operations that are measured.
+     */
+    enum Operation {
+
+        INSERT("addEdge") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return new Harness.Trial() {
+                    private MyGraph empty;
+
+                    @Override
+                    public void setUp() {
+                        empty = edges.emptyGraph(directed, new Random(0));
+                    }
+
+                    @Override
+                    public long run() {
+                        for (int i = 0; i < edges.size(); i++)
+                            empty.addEdge(edges.getSource(i), edges.getDest(i), edges.getWeight(i));
+                        Harness.sink = empty;
+                        return edges.size();
+                    }
+                };
+            }
+        },
+
+        IS_EDGE("isEdge") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return () -> {
+                    int found = 0;
+                    for (int q = 0; q < QUERIES; q++) {
+                        if (graph.isEdge(queries[0][q], queries[1][q]))
+                            found++;
+                    }
+                    Harness.sink = found;
+                    return QUERIES;
+                };
+            }
+        },
+
+        GET_EDGE("getEdge") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return () -> {
+                    double sum = 0;
+                    for (int q = 0; q < QUERIES; q++) {
+                        Edge edge = graph.getEdge(queries[0][q], queries[1][q]);
+                        if (edge != null)
+                            sum += edge.getWeight();
+                    }
+                    Harness.sink = sum;
+                    return QUERIES;
+                };
+            }
+        },
+
+        GET_EDGE_WEIGHT("getEdgeWeight") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return () -> {
+                    double sum = 0;
+                    for (int q = 0; q < QUERIES; q++)
+                        sum += graph.getEdgeWeight(queries[0][q], queries[1][q], 0);
+                    Harness.sink = sum;
+                    return QUERIES;
+                };
+            }
+        },
+
+        SET_EDGE_WEIGHT("setEdgeWeight") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return () -> {
+                    int found = 0;
+                    for (int q = 0; q < QUERIES; q += 2) {
+                        if (graph.setEdgeWeight(queries[0][q], queries[1][q], q))
+                            found++;
+                    }
+                    Harness.sink = found;
+                    return QUERIES / 2;
+                };
+            }
+        },
+
+        REMOVE_EDGE("removeEdge+addEdge") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                // Every removed edge is added again, so the graph is the same after each run.
+                return () -> {
+                    int found = 0;
+                    for (int q = 0; q < QUERIES; q += 2) {
+                        if (graph.removeEdge(queries[0][q], queries[1][q])) {
+                            graph.addEdge(queries[0][q], queries[1][q], q);
+                            found++;
+                        }
+                    }
+                    Harness.sink = found;
+                    return QUERIES;
+                };
+            }
+        },
+
+        ITERATE("edgeIterator") {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries) {
+                return () -> {
+                    double sum = 0;
+                    long count = 0;
+                    for (int id = 0; id < edges.getNumV(); id++) {
+                        Iterator<Edge> itr = graph.edgeIterator(id);
+                        while (itr.hasNext()) {
+                            sum += itr.next().getWeight();
+                            count++;
+                        }
+                    }
+                    Harness.sink = sum;
+                    return count;
+                };
+            }
+        };
+
+        final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Create the benchmark of the operation. queries[0] and queries[1] are the sources and destinations
+         * of the probes.
+         */
+        abstract Harness.Trial trial(EdgeList edges, MyGraph graph, boolean directed, int[][] queries);
+    }
+
+    public static void main(String[] args) {
+        Set<String> selected = new HashSet<String>();
+        for (String arg : args)
+            selected.add(arg);
+
+        System.out.println("----- Edge Store Benchmark -----" + "\n");
+        Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+        for (Operation operation : Operation.values()) {
+            if (!selected.isEmpty() && !selected.contains(operation.name))
+                continue;
+            System.out.println(operation.name);
+            System.out.printf("%-10s %-10s %9s %9s %12s %12s %10s %6s%n", "graph", "kind", "vertices", "edges",
+                              "ns/op", "B/op", "MB/s", "gc");
+            for (GraphGenerator generator : GENERATORS) {
+                for (int n : SIZES) {
+                    EdgeList edges = generator.generate(n, new Random(n));
+                    int[][] queries = queries(edges, new Random(n));
+                    for (boolean directed : new boolean[] { false, true }) {
+                        MyGraph graph = edges.toGraph(directed, new Random(n));
+                        Harness.Result result = harness.measure(operation.trial(edges, graph, directed, queries));
+                        System.out.printf("%-10s %-10s %9d %9d %12.1f %12.1f %10.1f %6d%n", generator,
+                                          directed ? "directed" : "undirected", edges.getNumV(), edges.size(),
+                                          result.nanosPerOp, result.bytesPerOp, result.allocationRate(),
+                                          result.collections);
+                    }
+                }
+            }
+            System.out.println();
+        }
+        if (selected.isEmpty() || selected.contains("retained"))
+            printRetainedHeap();
+    }
+
+    /**
+     * Print the heap that the edges of the graphs of RETAINED_SIZE vertices keep.
+     */
+    private static void printRetainedHeap() {
+        System.out.println("retained heap");
+        System.out.printf("%-10s %-10s %9s %9s %12s%n", "graph", "kind", "vertices", "edges", "B/edge");
+        for (GraphGenerator generator : GENERATORS) {
+            EdgeList edges = generator.generate(RETAINED_SIZE, new Random(RETAINED_SIZE));
+            for (boolean directed : new boolean[] { false, true }) {
+                MyGraph graph = edges.emptyGraph(directed, new Random(0));
+                long before = usedHeap();
+                for (int i = 0; i < edges.size(); i++)
+                    graph.addEdge(edges.getSource(i), edges.getDest(i), edges.getWeight(i));
+                long after = usedHeap();
+                Harness.sink = graph;
+                System.out.printf("%-10s %-10s %9d %9d %12.1f%n", generator, directed ? "directed" : "undirected",
+                                  edges.getNumV(), edges.size(), (double) (after - before) / edges.size());
+            }
+        }
+    }
+
+    /**
+     * Return random probes, half of them are edges of the list.
+     */
+    private static int[][] queries(EdgeList edges, Random random) {
+        int[][] queries = new int[2][QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            if (q % 2 == 0 && edges.size() > 0) {
+                int i = random.nextInt(edges.size());
+                queries[0][q] = edges.getSource(i);
+                queries[1][q] = edges.getDest(i);
+            }
+            else {
+                queries[0][q] = random.nextInt(edges.getNumV());
+                queries[1][q] = random.nextInt(edges.getNumV());
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Return the used heap after the garbage is collected.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,157 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import lib.GraphBatch;
+import lib.GraphListener;
+import lib.MyGraph;
+
+/**
+ * This class compares GraphBatch with calling addEdge and removeEdge of the graph for each edge. Each row
+ * has the time per edit of the calls, of a batch that is applied on the calling thread and of a batch that
+ * is applied on a ForkJoinPool.
+ *
+ * The build table inserts all edges of a graph into the graph without edges, with one batch for all of
+ * them. The update table removes random edges of the full graph and inserts them again, in batches of the
+ * given size, so the graph has the same edges after each run. Its rows with a listener have a listener on
+ * the graph, which gets one call for each edit from the calls and one call for each batch.
+ *
+ * @author Yusuf Arslan
+ */
+public class GraphBatchBenchmark {
+
+    private static final int[] SIZES = { 64_000, 256_000 };
+
+    private static final GraphGenerator[] GENERATORS = { GraphGenerator.RANDOM, GraphGenerator.POWER_LAW };
+
+    /**
+     * Numbers of edits in one batch of the update table.
+     */
+    private static final int[] BATCH_SIZES = { 100, 10_000, 100_000 };
+
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Number of edits in one run of the update table.
+     */
+    private static final int EDITS = 200_000;
+
+    public static void main(String[] args) {
+        System.out.println("----- Graph Batch Benchmark -----" + "\n");
+        Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Pool parallelism: " + pool.getParallelism() + "\n");
+
+        System.out.println("build");
+        System.out.printf("%-10s %-10s %9s %9s %14s %14s %14s%n", "graph", "kind", "vertices", "edges",
+                          "calls ns/edit", "batch ns/edit", "pool ns/edit");
+        for (GraphGenerator generator : GENERATORS) {
+            for (int n : SIZES) {
+                EdgeList edges = generator.generate(n, new Random(n));
+                for (boolean directed : new boolean[] { false, true }) {
+                    double calls = harness.measure(build(edges, directed, null, false)).nanosPerOp;
+                    double batch = harness.measure(build(edges, directed, null, true)).nanosPerOp;
+                    double parallel = harness.measure(build(edges, directed, pool, true)).nanosPerOp;
+                    System.out.printf("%-10s %-10s %9d %9d %14.1f %14.1f %14.1f%n", generator,
+                                      directed ? "directed" : "undirected", edges.getNumV(), edges.size(), calls,
+                                      batch, parallel);
+                }
+            }
+        }
+        System.out.println();
+
+        System.out.println("update");
+        System.out.printf("%-10s %-10s %9s %9s %8s %9s %14s %14s %14s%n", "graph", "kind", "vertices", "edges",
+                          "batch", "listener", "calls ns/edit", "batch ns/edit", "pool ns/edit");
+        for (GraphGenerator generator : GENERATORS) {
+            int n = SIZES[SIZES.length - 1];
+            EdgeList edges = generator.generate(n, new Random(n));
+            int[] picks = picks(edges, new Random(n));
+            for (boolean directed : new boolean[] { false, true }) {
+                MyGraph graph = edges.toGraph(directed, new Random(n));
+                for (boolean listener : new boolean[] { false, true }) {
+                    if (listener)
+                        graph.addGraphListener(() -> Harness.sink = graph);
+                    for (int batchSize : BATCH_SIZES) {
+                        double calls = harness.measure(update(edges, graph, picks, 0, null)).nanosPerOp;
+                        double batch = harness.measure(update(edges, graph, picks, batchSize, null)).nanosPerOp;
+                        double parallel = harness.measure(update(edges, graph, picks, batchSize, pool)).nanosPerOp;
+                        System.out.printf("%-10s %-10s %9d %9d %8d %9s %14.1f %14.1f %14.1f%n", generator,
+                                          directed ? "directed" : "undirected", edges.getNumV(), edges.size(),
+                                          batchSize, listener ? "yes" : "no", calls, batch, parallel);
+                    }
+                }
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Insert all edges into an empty graph, with the calls or with one batch.
+     */
+    private static Harness.Trial build(EdgeList edges, boolean directed, ForkJoinPool pool, boolean batched) {
+        return new Harness.Trial() {
+            private MyGraph empty;
+
+            @Override
+            public void setUp() {
+                empty = edges.emptyGraph(directed, new Random(0));
+            }
+
+            @Override
+            public long run() {
+                if (batched) {
+                    GraphBatch batch = new GraphBatch(empty);
+                    for (int i = 0; i < edges.size(); i++)
+                        batch.addEdge(edges.getSource(i), edges.getDest(i), edges.getWeight(i));
+                    batch.apply(pool);
+                }
+                else {
+                    for (int i = 0; i < edges.size(); i++)
+                        empty.addEdge(edges.getSource(i), edges.getDest(i), edges.getWeight(i));
+                }
+                Harness.sink = empty;
+                return edges.size();
+            }
+        };
+    }
+
+    /**
+     * Remove the picked edges and insert them again, with the calls if batchSize is 0, or else in batches
+     * of batchSize edits.
+     */
+    private static Harness.Trial update(EdgeList edges, MyGraph graph, int[] picks, int batchSize,
+                                        ForkJoinPool pool) {
+        return () -> {
+            GraphBatch batch = new GraphBatch(graph);
+            for (int pick : picks) {
+                int source = edges.getSource(pick);
+                int dest = edges.getDest(pick);
+                if (batchSize == 0) {
+                    graph.removeEdge(source, dest);
+                    graph.addEdge(source, dest, edges.getWeight(pick));
+                    continue;
+                }
+                batch.removeEdge(source, dest);
+                batch.addEdge(source, dest, edges.getWeight(pick));
+                if (batch.size() >= batchSize)
+                    batch.apply(pool);
+            }
+            batch.apply(pool);
+            Harness.sink = graph;
+            return 2L * picks.length;
+        };
+    }
+
+    /**
+     * Return random edges of the list, one for every two edits.
+     */
+    private static int[] picks(EdgeList edges, Random random) {
+        int[] picks = new int[EDITS / 2];
+        for (int k = 0; k < picks.length; k++)
+            picks[k] = random.nextInt(edges.size());
+        return picks;
+    }
+}
@@ -0,0 +1,275 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import lib.BFSDifferenceDFS;
+import lib.CsrGraph;
+import lib.Dijkstras;
+import lib.MyGraph;
+import lib.MyGraph.Vertex;
+
+/**
+ * This class is the baseline benchmark of the lib package. Every operation is measured on random, grid,
+ * power-law and path graphs whose size grows 4 times in every step, and the results are printed as one
+ * table per operation.
+ *
+ * The columns are the time per operation, the throughput, the bytes allocated per operation, the
+ * allocation rate and the number of collections during the measured rounds. An operation on the whole
+ * graph also has its time per vertex and edge, which stays the same while the graph grows if the
+ * operation is linear, so each table is also a scaling curve.
+ *
+ * The names of the operations can be given as arguments to measure only them, for example
+ * "java bench.GraphBenchmark dijkstras insert".
+ *
+ * @author Yusuf Arslan
+ */
+public class GraphBenchmark {
+
+    /**
+     * Number of vertices of the graphs.
+     */
+    private static final int[] SIZES = { 1_000, 4_000, 16_000, 64_000 };
+
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Number of isEdge calls in one run, half of them are edges of the graph.
+     */
+    private static final int QUERIES = 10_000;
+
+    /**
+     * Number of vertices removed in one run.
+     */
+    private static final int REMOVED_VERTICES = 20;
+
+    /**
+     * Operations that are measured.
+     */
+    enum Operation {
+
+        INSERT("insert", false) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return new Harness.Trial() {
+                    private MyGraph empty;
+
+                    @Override
+                    public void setUp() {
+                        empty = edges.emptyGraph(false, random);
+                    }
+
+                    @Override
+                    public long run() {
+                        for (int i = 0; i < edges.size(); i++)
+                            empty.addEdge(edges.getSource(i), edges.getDest(i), edges.getWeight(i));
+                        Harness.sink = empty;
+                        return edges.size();
+                    }
+                };
+            }
+        },
+
+        IS_EDGE("isEdge", false) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                int[] sources = new int[QUERIES];
+                int[] dests = new int[QUERIES];
+                for (int q = 0; q < QUERIES; q++) {
+                    if (q % 2 == 0 && edges.size() > 0) {
+                        int i = random.nextInt(edges.size());
+                        sources[q] = edges.getSource(i);
+                        dests[q] = edges.getDest(i);
+                    }
+                    else {
+                        sources[q] = random.nextInt(edges.getNumV());
+                        dests[q] = random.nextInt(edges.getNumV());
+                    }
+                }
+                return () -> {
+                    int found = 0;
+                    for (int q = 0; q < QUERIES; q++) {
+                        if (graph.isEdge(sources[q], dests[q]))
+                            found++;
+                    }
+                    Harness.sink = found;
+                    return QUERIES;
+                };
+            }
+        },
+
+        REMOVE_VERTEX("removeVertex", false) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return removeVertices(edges, false, random);
+            }
+        },
+
+        REMOVE_VERTEX_DIRECTED("removeVertex-directed", false) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return removeVertices(edges, true, random);
+            }
+        },
+
+        FILTER_VERTICES("filterVertices", true) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return () -> {
+                    Harness.sink = graph.filterVertices("Color", "Blue");
+                    return 1;
+                };
+            }
+        },
+
+        EXPORT_ADJACENCY_MATRIX("exportAdjacencyMatrix", true) {
+            @Override
+            boolean supports(EdgeList edges) {
+                return edges.getNumV() <= CsrGraph.MAX_DENSE_SIZE;
+            }
+
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return () -> {
+                    Harness.sink = graph.exportAdjacencyMatrix();
+                    return 1;
+                };
+            }
+        },
+
+        DIJKSTRAS("dijkstras", true) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                Vertex start = graph.getVertex(0);
+                return () -> {
+                    HashMap<Vertex, Vertex> pred = new HashMap<Vertex, Vertex>();
+                    HashMap<Vertex, Double> dist = new HashMap<Vertex, Double>();
+                    Dijkstras.dijkstras(graph, start, pred, dist);
+                    Harness.sink = dist;
+                    return 1;
+                };
+            }
+        },
+
+        BFS_DIFFERENCE_DFS("bfsDifferenceDfs", true) {
+            @Override
+            Harness.Trial trial(EdgeList edges, MyGraph graph, Random random) {
+                return () -> {
+                    PrintStream out = System.out;
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                    try {
+                        Harness.sink = BFSDifferenceDFS.bfsDifferenceDfs(graph, 0);
+                    }
+                    finally {
+                        System.setOut(out);
+                    }
+                    return 1;
+                };
+            }
+        };
+
+        final String name;
+
+        /**
+         * True if one operation works on the whole graph, so its time per vertex and edge is printed.
+         */
+        final boolean wholeGraph;
+
+        Operation(String name, boolean wholeGraph) {
+            this.name = name;
+            this.wholeGraph = wholeGraph;
+        }
+
+        /**
+         * Return false if the operation cannot run on the graph.
+         */
+        boolean supports(EdgeList edges) {
+            return true;
+        }
+
+        /**
+         * Create the benchmark of the operation. The graph has the edges and must not be changed.
+         */
+        abstract Harness.Trial trial(EdgeList edges, MyGraph graph, Random random);
+    }
+
+    public static void main(String[] args) {
+        Set<String> selected = new HashSet<String>();
+        for (String arg : args)
+            selected.add(arg);
+        run(selected);
+    }
+
+    /**
+     * Build the graphs and print a table for each selected operation, all of them if none is selected.
+     */
+    private static void run(Set<String> selected) {
+        System.out.println("----- Graph Benchmark -----" + "\n");
+
+        // Graphs are generated once and shared by all operations.
+        GraphGenerator[] generators = GraphGenerator.values();
+        EdgeList[][] edges = new EdgeList[generators.length][SIZES.length];
+        MyGraph[][] graphs = new MyGraph[generators.length][SIZES.length];
+        for (int g = 0; g < generators.length; g++) {
+            for (int s = 0; s < SIZES.length; s++) {
+                edges[g][s] = generators[g].generate(SIZES[s], new Random(SIZES[s]));
+                graphs[g][s] = edges[g][s].toGraph(false, new Random(SIZES[s]));
+            }
+        }
+
+        Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+        for (Operation operation : Operation.values()) {
+            if (!selected.isEmpty() && !selected.contains(operation.name))
+                continue;
+            System.out.println(operation.name);
+            System.out.printf("%-10s %9s %9s %14s %14s %12s %12s %10s %6s%n", "graph", "vertices", "edges",
+                              "ns/op", "ops/s", "ns/(V+E)", "B/op", "MB/s", "gc");
+            for (int g = 0; g < generators.length; g++) {
+                for (int s = 0; s < SIZES.length; s++) {
+                    EdgeList list = edges[g][s];
+                    if (!operation.supports(list))
+                        continue;
+                    Harness.Result result = harness.measure(operation.trial(list, graphs[g][s], new Random(s)));
+                    String perElement = operation.wholeGraph
+                                        ? String.format("%.2f", result.nanosPerOp / (list.getNumV() + list.size()))
+                                        : "-";
+                    System.out.printf("%-10s %9d %9d %14.1f %14.1f %12s %12.1f %10.1f %6d%n",
+                                      generators[g], list.getNumV(), list.size(), result.nanosPerOp,
+                                      result.opsPerSecond(), perElement, result.bytesPerOp,
+                                      result.allocationRate(), result.collections);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Benchmark of removing random vertices from a new copy of the graph.
+     */
+    private static Harness.Trial removeVertices(EdgeList edges, boolean directed, Random random) {
+        return new Harness.Trial() {
+            private MyGraph copy;
+            private int[] ids;
+
+            @Override
+            public void setUp() {
+                copy = edges.toGraph(directed, random);
+                int count = Math.min(REMOVED_VERTICES, edges.getNumV());
+                ids = random.ints(0, edges.getNumV()).distinct().limit(count).toArray();
+            }
+
+            @Override
+            public long run() {
+                for (int id : ids)
+                    copy.removeVertex(id);
+                Harness.sink = copy;
+                return ids.length;
+            }
+        };
+    }
+}
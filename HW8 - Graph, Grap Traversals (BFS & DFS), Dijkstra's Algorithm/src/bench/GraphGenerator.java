@@ -0,0 +1,132 @@
+package bench;
+
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Shapes of the graphs that the benchmarks run on. A generator creates about n vertices with weights
+ * between 1 and 100, without loops or duplicate edges. The same seed gives the same graph.
+ *
+ * @author Yusuf Arslan
+ */
+public enum GraphGenerator {
+
+    /**
+     * Undirected graph with n vertices and EDGES_PER_VERTEX * n edges between random vertices.
+     */
+    RANDOM {
+        @Override
+        EdgeList generate(int n, Random random) {
+            Builder builder = new Builder(n, random);
+            long edges = Math.min((long) EDGES_PER_VERTEX * n, (long) n * (n - 1) / 2);
+            while (builder.edges.size() < edges)
+                builder.add(random.nextInt(n), random.nextInt(n));
+            return builder.edges;
+        }
+    },
+
+    /**
+     * Square grid where each vertex is connected to its right and lower neighbors, like a road map.
+     * The number of vertices is rounded down to a square.
+     */
+    GRID {
+        @Override
+        EdgeList generate(int n, Random random) {
+            int side = Math.max(1, (int) Math.sqrt(n));
+            Builder builder = new Builder(side * side, random);
+            for (int row = 0; row < side; row++) {
+                for (int col = 0; col < side; col++) {
+                    int id = row * side + col;
+                    if (col + 1 < side)
+                        builder.add(id, id + 1);
+                    if (row + 1 < side)
+                        builder.add(id, id + side);
+                }
+            }
+            return builder.edges;
+        }
+    },
+
+    /**
+     * Preferential attachment graph of Barabasi and Albert. Each new vertex is connected to
+     * POWER_LAW_EDGES older vertices that are chosen with a probability proportional to their degree,
+     * so a few hubs get most of the edges.
+     */
+    POWER_LAW {
+        @Override
+        EdgeList generate(int n, Random random) {
+            Builder builder = new Builder(n, random);
+            // Each edge puts both of its ends here, so a uniform pick is proportional to the degree.
+            int[] ends = new int[2 * POWER_LAW_EDGES * n + 2];
+            int count = 0;
+            int first = Math.min(n, POWER_LAW_EDGES + 1);
+            for (int v = 1; v < first; v++) {
+                builder.add(v - 1, v);
+                ends[count++] = v - 1;
+                ends[count++] = v;
+            }
+            for (int v = first; v < n; v++) {
+                for (int k = 0; k < POWER_LAW_EDGES; k++) {
+                    int target = (count == 0) ? 0 : ends[random.nextInt(count)];
+                    if (builder.add(v, target)) {
+                        ends[count++] = v;
+                        ends[count++] = target;
+                    }
+                }
+            }
+            return builder.edges;
+        }
+    },
+
+    /**
+     * Path from vertex 0 to vertex n - 1, the deepest graph for a traversal.
+     */
+    PATH {
+        @Override
+        EdgeList generate(int n, Random random) {
+            Builder builder = new Builder(n, random);
+            for (int v = 1; v < n; v++)
+                builder.add(v - 1, v);
+            return builder.edges;
+        }
+    };
+
+    /**
+     * Number of edges of each vertex of a random graph.
+     */
+    static final int EDGES_PER_VERTEX = 8;
+
+    /**
+     * Number of edges that a new vertex of a power-law graph adds.
+     */
+    static final int POWER_LAW_EDGES = 4;
+
+    /**
+     * Create the edges of a graph with about n vertices.
+     */
+    abstract EdgeList generate(int n, Random random);
+
+    /**
+     * Collects undirected edges, skipping loops and duplicates.
+     */
+    private static final class Builder {
+        private final EdgeList edges;
+        private final HashSet<Long> seen = new HashSet<Long>();
+        private final Random random;
+
+        Builder(int n, Random random) {
+            this.edges = new EdgeList(n);
+            this.random = random;
+        }
+
+        /**
+         * Add the edge with a random weight if it is new, and return true if it is added.
+         */
+        boolean add(int u, int v) {
+            if (u == v || !seen.add((long) Math.min(u, v) << 32 | Math.max(u, v)))
+                return false;
+            edges.add(u, v, 1 + random.nextInt(100));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * This class measures a benchmark in rounds. The first rounds warm up the JIT and are not counted. For
+ * each measured round it records the time and the bytes that the thread allocates, so the report has
+ * the throughput, the allocation per operation and the allocation rate. The number of collections is
+ * counted over all measured rounds. Like the bytes, the time and the collections are only counted while
+ * run is running, so the collections during setUp are not counted against the operation.
+ *
+ * The values are the medians of the rounds, so one slow round does not change the result.
+ *
+ * @author Yusuf Arslan
+ */
+final class Harness {
+
+    /**
+     * A benchmark. setUp is not measured, run is measured and returns the number of operations it did.
+     * The result of the operations should be stored in sink, so the JIT cannot remove them.
+     */
+    interface Trial {
+        default void setUp() {}
+
+        long run();
+    }
+
+    /**
+     * Result of a benchmark.
+     */
+    static final class Result {
+        final double nanosPerOp;
+        final double bytesPerOp;
+        final long collections;
+
+        Result(double nanosPerOp, double bytesPerOp, long collections) {
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.collections = collections;
+        }
+
+        double opsPerSecond() {
+            return 1e9 / nanosPerOp;
+        }
+
+        /**
+         * Allocated megabytes per second.
+         */
+        double allocationRate() {
+            return bytesPerOp / nanosPerOp * 1e9 / (1 << 20);
+        }
+    }
+
+    /**
+     * Results are stored here, so the JIT cannot remove the work that produced them.
+     */
+    static volatile Object sink;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final int warmUpRounds;
+    private final int rounds;
+
+    Harness(int warmUpRounds, int rounds) {
+        this.warmUpRounds = warmUpRounds;
+        this.rounds = rounds;
+    }
+
+    /**
+     * Measure the trial. A round is repeated until it takes at least 10 ms, so short operations are
+     * measured over many calls.
+     */
+    Result measure(Trial trial) {
+        double[] nanos = new double[rounds];
+        double[] bytes = new double[rounds];
+        long collections = 0;
+        for (int round = -warmUpRounds; round < rounds; round++) {
+            long elapsed = 0;
+            long allocated = 0;
+            long gcs = 0;
+            long ops = 0;
+            while (elapsed < 10_000_000L) {
+                trial.setUp();
+                long gcBefore = collectionCount();
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                ops += trial.run();
+                elapsed += System.nanoTime() - start;
+                allocated += allocatedBytes() - allocatedBefore;
+                gcs += collectionCount() - gcBefore;
+            }
+            if (round >= 0) {
+                nanos[round] = (double) elapsed / ops;
+                bytes[round] = (double) allocated / ops;
+                collections += gcs;
+            }
+        }
+        return new Result(median(nanos), median(bytes), collections);
+    }
+
+    /**
+     * Return the bytes that the current thread has allocated, 0 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        return (THREADS == null) ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Return the number of collections of all collectors.
+     */
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Return the thread bean of HotSpot with allocation counting enabled, null if it is not available.
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemorySupported())
+            return null;
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+}
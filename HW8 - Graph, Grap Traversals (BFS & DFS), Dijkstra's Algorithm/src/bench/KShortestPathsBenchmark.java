@@ -0,0 +1,124 @@
+package bench;
+
+import java.util.Random;
+
+import lib.AlternativePaths;
+import lib.KShortestPaths;
+import lib.MyGraph;
+
+/**
+ * This class measures KShortestPaths for k from 1 to 20 on large sparse graphs. Each row is the average of
+ * the same random pairs of vertices: the time of a query, the vertices that its searches expanded, the paths
+ * that it found and the time per path. The first row is the cost of the shortest path tree into the target,
+ * and the next rows show what each alternative adds to it.
+ *
+ * The last table bounds the expanded vertices of the queries for k = 20, and its complete column is the
+ * number of queries that have finished before the bound.
+ *
+ * @author Yusuf Arslan
+ */
+public class KShortestPathsBenchmark {
+
+    private static final int[] SIZES = { 64_000, 256_000 };
+
+    private static final GraphGenerator[] GENERATORS = {
+        GraphGenerator.RANDOM, GraphGenerator.GRID, GraphGenerator.POWER_LAW
+    };
+
+    private static final int MAX_K = 20;
+
+    /**
+     * Bounds of the last table, as fractions of the vertices of the graph.
+     */
+    private static final double[] BOUNDS = { 0.25, 1, 2 };
+
+    private static final int WARM_UP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Number of pairs of vertices that are queried in one run.
+     */
+    private static final int QUERIES = 4;
+
+    public static void main(String[] args) {
+        System.out.println("----- K Shortest Paths Benchmark -----" + "\n");
+        Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+        System.out.printf("%-10s %9s %9s %4s %14s %12s %8s %14s%n", "graph", "vertices", "edges", "k", "ns/op",
+                          "expanded", "paths", "ns/path");
+        for (GraphGenerator generator : GENERATORS) {
+            for (int n : SIZES) {
+                EdgeList edges = generator.generate(n, new Random(n));
+                MyGraph graph = edges.toGraph(false, new Random(n));
+                int[][] pairs = pairs(edges.getNumV(), new Random(n));
+                KShortestPaths engine = new KShortestPaths(graph);
+                for (int k = 1; k <= MAX_K; k++) {
+                    int paths = k;
+                    double nanos = harness.measure(() -> {
+                        for (int q = 0; q < QUERIES; q++)
+                            Harness.sink = engine.paths(pairs[0][q], pairs[1][q], paths);
+                        return QUERIES;
+                    }).nanosPerOp;
+                    long expanded = 0;
+                    int found = 0;
+                    for (int q = 0; q < QUERIES; q++) {
+                        AlternativePaths result = engine.paths(pairs[0][q], pairs[1][q], k);
+                        expanded += result.getExpanded();
+                        found += result.size();
+                    }
+                    System.out.printf("%-10s %9d %9d %4d %14.1f %12d %8.1f %14.1f%n", generator, edges.getNumV(),
+                                      edges.size(), k, nanos, expanded / QUERIES, (double) found / QUERIES,
+                                      nanos * QUERIES / Math.max(1, found));
+                }
+                System.out.println();
+            }
+        }
+        printBounded(harness);
+    }
+
+    /**
+     * Print the queries for k = 20 with a bound on their expanded vertices.
+     */
+    private static void printBounded(Harness harness) {
+        System.out.println("bounded, k = " + MAX_K);
+        System.out.printf("%-10s %9s %9s %12s %14s %8s %9s%n", "graph", "vertices", "edges", "bound", "ns/op",
+                          "paths", "complete");
+        for (GraphGenerator generator : GENERATORS) {
+            int n = SIZES[SIZES.length - 1];
+            EdgeList edges = generator.generate(n, new Random(n));
+            MyGraph graph = edges.toGraph(false, new Random(n));
+            int[][] pairs = pairs(edges.getNumV(), new Random(n));
+            for (double fraction : BOUNDS) {
+                long bound = Math.max(1, (long) (fraction * edges.getNumV()));
+                KShortestPaths engine = new KShortestPaths(graph, bound);
+                double nanos = harness.measure(() -> {
+                    for (int q = 0; q < QUERIES; q++)
+                        Harness.sink = engine.paths(pairs[0][q], pairs[1][q], MAX_K);
+                    return QUERIES;
+                }).nanosPerOp;
+                int found = 0;
+                int complete = 0;
+                for (int q = 0; q < QUERIES; q++) {
+                    AlternativePaths result = engine.paths(pairs[0][q], pairs[1][q], MAX_K);
+                    found += result.size();
+                    if (result.isComplete())
+                        complete++;
+                }
+                System.out.printf("%-10s %9d %9d %12d %14.1f %8.1f %6d/%d%n", generator, edges.getNumV(),
+                                  edges.size(), bound, nanos, (double) found / QUERIES, complete, QUERIES);
+            }
+        }
+        System.out.println();
+    }
+
+    /**
+     * Return random pairs of vertices, pairs[0] are the starts and pairs[1] are the targets.
+     */
+    private static int[][] pairs(int numV, Random random) {
+        int[][] pairs = new int[2][QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            pairs[0][q] = random.nextInt(numV);
+            pairs[1][q] = random.nextInt(numV);
+        }
+        return pairs;
+    }
+}
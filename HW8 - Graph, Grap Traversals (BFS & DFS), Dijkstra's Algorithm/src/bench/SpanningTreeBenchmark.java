@@ -0,0 +1,116 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import lib.MinimumSpanningTree;
+import lib.MyGraph;
+
+/**
+ * This class compares the minimum spanning tree engines of the lib package on sparse graphs, random
+ * graphs with about 8 edges per vertex, and on dense graphs, where every pair of vertices is an edge with
+ * probability DENSITY. Prim's heap operations grow with the vertices, and Kruskal's sort grows with the
+ * edges, so Kruskal is expected to lose on the dense graphs.
+ *
+ * Boruvka runs on a pool with one worker per available processor.
+ *
+ * @author Yusuf Arslan
+ */
+public class SpanningTreeBenchmark {
+
+    private static final int[] SPARSE_SIZES = { 4_000, 16_000, 64_000 };
+    private static final int[] DENSE_SIZES = { 250, 500, 1_000 };
+
+    /**
+     * Probability of an edge between two vertices of a dense graph.
+     */
+    private static final double DENSITY = 0.5;
+
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Engines that are measured.
+     */
+    enum Engine {
+
+        PRIM("prim") {
+            @Override
+            Object run(MyGraph graph, ForkJoinPool pool) {
+                return MinimumSpanningTree.prim(graph);
+            }
+        },
+
+        KRUSKAL("kruskal") {
+            @Override
+            Object run(MyGraph graph, ForkJoinPool pool) {
+                return MinimumSpanningTree.kruskal(graph);
+            }
+        },
+
+        BORUVKA("boruvka") {
+            @Override
+            Object run(MyGraph graph, ForkJoinPool pool) {
+                return MinimumSpanningTree.boruvka(graph, pool);
+            }
+        };
+
+        final String name;
+
+        Engine(String name) {
+            this.name = name;
+        }
+
+        abstract Object run(MyGraph graph, ForkJoinPool pool);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("----- Spanning Tree Benchmark -----" + "\n");
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            Harness harness = new Harness(WARM_UP_ROUNDS, ROUNDS);
+            System.out.printf("%-8s %-8s %9s %9s %14s %12s %12s %6s%n", "graph", "engine", "vertices", "edges",
+                              "ns/op", "ns/(V+E)", "B/op", "gc");
+            for (int n : SPARSE_SIZES)
+                measure(harness, pool, "sparse", GraphGenerator.RANDOM.generate(n, new Random(n)));
+            for (int n : DENSE_SIZES)
+                measure(harness, pool, "dense", dense(n, new Random(n)));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Print a row for each engine on the graph of the edges.
+     */
+    private static void measure(Harness harness, ForkJoinPool pool, String kind, EdgeList edges) {
+        MyGraph graph = edges.toGraph(false, new Random(edges.getNumV()));
+        // The snapshot is built before the rounds, so it is not measured.
+        graph.freeze();
+        for (Engine engine : Engine.values()) {
+            Harness.Result result = harness.measure(() -> {
+                Harness.sink = engine.run(graph, pool);
+                return 1;
+            });
+            System.out.printf("%-8s %-8s %9d %9d %14.1f %12.2f %12.1f %6d%n", kind, engine.name,
+                              edges.getNumV(), edges.size(), result.nanosPerOp,
+                              result.nanosPerOp / (edges.getNumV() + edges.size()), result.bytesPerOp,
+                              result.collections);
+        }
+    }
+
+    /**
+     * Return a graph where every pair of vertices is an edge with probability DENSITY.
+     */
+    private static EdgeList dense(int n, Random random) {
+        EdgeList edges = new EdgeList(n);
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                if (random.nextDouble() < DENSITY)
+                    edges.add(u, v, 1 + random.nextInt(100));
+            }
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,150 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Random;
+
+import lib.BFSDifferenceDFS;
+import lib.Edge;
+import lib.MyGraph;
+
+/**
+ * This class measures the traversals of MyGraph on random graphs whose size doubles in every step,
+ * up to a graph with 1M edges. If a traversal is linear, its time per edge stays the same while the
+ * graph grows.
+ *
+ * Two traversals are measured. The first one walks the graph through the Graph interface and calls
+ * getVertex once per edge, as the textbook algorithms do. The second one is bfsDifferenceDfs.
+ *
+ * @author Yusuf Arslan
+ */
+public class TraversalBenchmark {
+
+    /**
+     * Number of edges that are inserted for each vertex.
+     */
+    private static final int EDGES_PER_VERTEX = 10;
+
+    /**
+     * Number of vertices of the graphs, the last graph has 1M edges.
+     */
+    private static final int[] SIZES = { 12_500, 25_000, 50_000, 100_000 };
+
+    /**
+     * Number of measured rounds, the best round is reported.
+     */
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        run();
+    }
+
+    /**
+     * Build the graphs and print the time per call and per edge of each measurement.
+     */
+    private static void run() {
+        System.out.println("----- Traversal Benchmark -----" + "\n");
+        System.out.printf("%10s %10s %16s %20s %20s%n",
+                          "vertices", "edges", "getVertex ns", "iterator BFS ns/edge", "BFS-DFS ns/edge");
+
+        for (int n : SIZES) {
+            MyGraph graph = randomGraph(n, EDGES_PER_VERTEX * n, new Random(n));
+            long edges = (long) EDGES_PER_VERTEX * n;
+
+            // First round warms up the JIT, it is not counted.
+            long getVertex = Long.MAX_VALUE;
+            long iteratorBfs = Long.MAX_VALUE;
+            long bfsDfs = Long.MAX_VALUE;
+            for (int round = 0; round <= ROUNDS; round++) {
+                long start = System.nanoTime();
+                lookUpAll(graph);
+                long lookUp = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                iteratorBfs(graph, 0);
+                long bfs = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                quietBfsDifferenceDfs(graph, 0);
+                long both = System.nanoTime() - start;
+
+                if (round > 0) {
+                    getVertex = Math.min(getVertex, lookUp);
+                    iteratorBfs = Math.min(iteratorBfs, bfs);
+                    bfsDfs = Math.min(bfsDfs, both);
+                }
+            }
+            System.out.printf("%10d %10d %16.1f %20.1f %20.1f%n", n, edges,
+                              (double) getVertex / n, (double) iteratorBfs / edges, (double) bfsDfs / edges);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Create an undirected graph with n vertices and the given number of random edges.
+     */
+    static MyGraph randomGraph(int n, int edges, Random random) {
+        MyGraph graph = new MyGraph(n, false);
+        int inserted = 0;
+        while (inserted < edges) {
+            int source = random.nextInt(n);
+            int dest = random.nextInt(n);
+            if (source != dest && !graph.isEdge(source, dest)) {
+                graph.addEdge(source, dest, 1 + random.nextInt(100));
+                inserted++;
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Call getVertex for every ID of the graph.
+     */
+    private static int lookUpAll(MyGraph graph) {
+        int found = 0;
+        for (int id = 0; id < graph.getNumV(); id++) {
+            if (graph.getVertex(id) != null)
+                found++;
+        }
+        return found;
+    }
+
+    /**
+     * Breadth-first search through edgeIterator and getVertex, as the textbook algorithms walk the graph.
+     */
+    private static int iteratorBfs(MyGraph graph, int start) {
+        boolean[] identified = new boolean[graph.getNumV()];
+        int[] queue = new int[graph.getNumV()];
+        int head = 0;
+        int tail = 0;
+        identified[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            Iterator<Edge> itr = graph.edgeIterator(current);
+            while (itr.hasNext()) {
+                MyGraph.Vertex neighbor = graph.getVertex(itr.next().getDest());
+                if (!identified[neighbor.getId()]) {
+                    identified[neighbor.getId()] = true;
+                    queue[tail++] = neighbor.getId();
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Run bfsDifferenceDfs without printing its results.
+     */
+    private static double quietBfsDifferenceDfs(MyGraph graph, int start) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return BFSDifferenceDFS.bfsDifferenceDfs(graph, start);
+        }
+        finally {
+            System.setOut(out);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * This class has static methods that find the shortest path between two vertices with the A* search.
+ *
+ * A* is the heap version of Dijkstra's algorithm where the key of a vertex is its distance plus the
+ * estimate of the heuristic to the target. The search is pulled towards the target, so on graphs whose
+ * vertices have coordinates it settles a small part of the vertices that Dijkstra's algorithm settles.
+ * With Heuristic.ZERO it is the same as Dijkstras.shortestPath.
+ *
+ * The boosting value of a vertex is subtracted from the weights of its edges, except the edges of the
+ * start vertex, as in Dijkstras.
+ *
+ * @author Yusuf Arslan
+ */
+public final class AStar
+{
+    // Prevent instantiate a AStar class object
+    private AStar() {}
+
+    /**
+     * Find the shortest path from the start vertex to the target vertex.
+     *
+     * @param graph The graph we're working with
+     * @param start The starting vertex
+     * @param target The target vertex
+     * @param heuristic The estimate of the distance to the target.
+     * @return The path and its distance.
+     * @throws IllegalArgumentException if a vertex is not in the graph
+     */
+    public static ShortestPath shortestPath(MyGraph graph, Vertex start, Vertex target, Heuristic heuristic)
+    {
+        Search search = new Search(graph.freeze(), start, target, heuristic);
+        search.run();
+
+        ArrayList<Vertex> path = new ArrayList<Vertex>();
+        if (search.distance[search.t] != Double.POSITIVE_INFINITY)
+        {
+            for (int v = search.t; v != search.s; v = search.previous[v])
+                path.add(search.csr.getVertex(v));
+            path.add(start);
+            Collections.reverse(path);
+        }
+        return new ShortestPath(path, search.distance[search.t], search.count);
+    }
+
+    /**
+     * Find the shortest path from the start vertex to the target vertex and fill the maps as
+     * Dijkstras.dijkstras does, but only for the vertices that the search has reached. The path to the
+     * target can be read from pred.
+     *
+     * @param graph The graph we're working with
+     * @param start The starting vertex
+     * @param target The target vertex
+     * @param heuristic The estimate of the distance to the target.
+     * @param pred A map of vertices to their predecessors.
+     * @param dist A map of vertices to their distances from the start vertex.
+     * @throws IllegalArgumentException if a vertex is not in the graph
+     */
+    public static void aStar(MyGraph graph, Vertex start, Vertex target, Heuristic heuristic,
+                             Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
+    {
+        Search search = new Search(graph.freeze(), start, target, heuristic);
+        search.run();
+        for (int i = 0; i < search.distance.length; i++)
+        {
+            if (i != search.s && search.distance[i] != Double.POSITIVE_INFINITY)
+            {
+                dist.put(search.csr.getVertex(i), search.distance[i]);
+                pred.put(search.csr.getVertex(i), search.csr.getVertex(search.previous[i]));
+            }
+        }
+    }
+
+    /**
+     * State of one search on the compressed snapshot.
+     */
+    private static final class Search
+    {
+        private final CsrGraph csr;
+        private final Heuristic heuristic;
+        private final Vertex target;
+        private final int s;
+        private final int t;
+        private final double[] distance;
+        private final int[] previous;
+        private final boolean[] settled;
+
+        /**
+         * Estimate of each vertex, NaN until the heuristic is called for it.
+         */
+        private final double[] estimate;
+        private int count;
+
+        Search(CsrGraph csr, Vertex start, Vertex target, Heuristic heuristic)
+        {
+            this.csr = csr;
+            this.heuristic = heuristic;
+            this.target = target;
+            s = Dijkstras.indexOf(csr, start);
+            t = Dijkstras.indexOf(csr, target);
+            int n = csr.getNumV();
+            distance = new double[n];
+            previous = new int[n];
+            settled = new boolean[n];
+            estimate = new double[n];
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(previous, s);
+            Arrays.fill(estimate, Double.NaN);
+        }
+
+        /**
+         * Settle the vertices in order of distance plus estimate until the target is settled.
+         */
+        void run()
+        {
+            IndexedMinHeap heap = new IndexedMinHeap(distance.length);
+            distance[s] = 0;
+            heap.offer(s, estimate(s));
+            while (!heap.isEmpty())
+            {
+                int u = heap.poll();
+                settled[u] = true;
+                count++;
+                if (u == t)
+                    return;
+
+                double boostValue = (u == s ? 0 : Dijkstras.boostOf(csr, u));
+                for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++)
+                {
+                    int v = csr.target(e);
+                    if (!settled[v] && distance[u] + csr.weight(e) - boostValue < distance[v])
+                    {
+                        distance[v] = distance[u] + csr.weight(e) - boostValue;
+                        previous[v] = u;
+                        heap.offerOrDecrease(v, distance[v] + estimate(v));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Return the estimate of the vertex, the heuristic is called once per vertex.
+         */
+        private double estimate(int v)
+        {
+            if (Double.isNaN(estimate[v]))
+                estimate[v] = heuristic.estimate(csr.getVertex(v), target);
+            return estimate[v];
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * AdjacencyList keeps the edges that leave one vertex, in the order they are added.
+ *
+ * The edges are stored in an array. A removed edge leaves an empty slot behind (lazy deletion), and
+ * the array is compacted when the empty slots are more than the edges. When the list has more edges than
+ * INDEX_THRESHOLD, it also keeps an open addressing hash index from destination IDs to slots, so an
+ * edge can be found, checked or removed in O(1). Small lists are searched linearly, which is faster
+ * than hashing for a few edges.
+ *
+ * Every edge in the list has the same source, so an edge is identified by its destination. An in-edge
+ * list keeps the edges that enter one vertex instead, and identifies them by their sources.
+ *
+ * The edges themselves are in the EdgeStore of the graph. The list keeps their int references next to
+ * the IDs that identify them, so finding, adding or removing an edge does not create objects and does
+ * not read the store.
+ *
+ * @author Yusuf Arslan
+ */
+final class AdjacencyList
+{
+    // Data Fields
+    /**
+     * The hash index is created when the list has more edges than this value.
+     */
+    static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * Default capacity of the edge array.
+     */
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /**
+     * Marks an empty bucket of the hash index and a removed edge. Vertex IDs are never negative.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * The ID that identifies the edge in each slot, EMPTY for removed edges.
+     */
+    private int[] ids;
+
+    /**
+     * The reference of the edge in each slot.
+     */
+    private int[] edges;
+
+    /**
+     * Number of slots that are used, including the removed ones.
+     */
+    private int end;
+
+    /**
+     * Number of edges in the list.
+     */
+    private int size;
+
+    /**
+     * Keys of the hash index, EMPTY for empty buckets. Null if there is no index.
+     */
+    private int[] keys;
+
+    /**
+     * Slot of the edge of each key in the hash index.
+     */
+    private int[] slots;
+
+    /**
+     * Counts the compactions, so that an iterator can detect that the slots have moved.
+     */
+    private int compactions;
+
+    /**
+     * Construct an empty list.
+     */
+    AdjacencyList()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct an empty list with room for the given number of edges.
+     *
+     * @param capacity The expected number of edges.
+     */
+    AdjacencyList(int capacity)
+    {
+        ids = new int[Math.max(capacity, 1)];
+        edges = new int[ids.length];
+    }
+
+    // Methods
+    /**
+     * Return the number of edges.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Return true if there is an edge to the given destination, or from the given source in an in-edge list.
+     */
+    boolean contains(int dest)
+    {
+        return find(dest) != -1;
+    }
+
+    /**
+     * Return the reference of the edge to the given destination, or from the given source in an in-edge
+     * list, or EdgeStore.NONE if there is no such edge.
+     */
+    int get(int dest)
+    {
+        int slot = find(dest);
+        return slot == -1 ? EdgeStore.NONE : edges[slot];
+    }
+
+    /**
+     * Make room for the given number of edges, so that adding them does not grow the array again. The array
+     * is at least doubled when it grows, so many small calls do not copy it each time.
+     *
+     * @param capacity The expected number of edges.
+     */
+    void ensureCapacity(int capacity)
+    {
+        if (capacity > ids.length)
+            grow(Math.max(capacity, 2 * ids.length));
+    }
+
+    /**
+     * Add the edge to the end of the list. The list must not have an edge with the same ID.
+     *
+     * @param id The destination ID of the edge, or its source ID in an in-edge list.
+     * @param edge The reference of the edge to be added.
+     */
+    void add(int id, int edge)
+    {
+        if (end == ids.length)
+        {
+            if (size <= end / 2)
+                compact();
+            else
+                grow(ids.length * 2);
+        }
+        ids[end] = id;
+        edges[end++] = edge;
+        size++;
+        if (keys != null)
+            put(id, end - 1);
+        else if (size > INDEX_THRESHOLD)
+            buildIndex(ids.length);
+    }
+
+    /**
+     * Add the edge to the end of the list if the list does not have an edge with the same ID.
+     *
+     * @param id The destination ID of the edge, or its source ID in an in-edge list.
+     * @param edge The reference of the edge to be added.
+     * @return True if the edge is added.
+     */
+    boolean addIfAbsent(int id, int edge)
+    {
+        if (find(id) != -1)
+            return false;
+        add(id, edge);
+        return true;
+    }
+
+    /**
+     * Remove the edge to the given destination, or from the given source in an in-edge list.
+     *
+     * @param dest The destination ID of the edge, or its source ID in an in-edge list.
+     * @return The reference of the removed edge, or EdgeStore.NONE if there is no such edge.
+     */
+    int remove(int dest)
+    {
+        int slot = find(dest);
+        if (slot == -1)
+            return EdgeStore.NONE;
+        int removed = edges[slot];
+        removeSlot(slot);
+        if (size <= end / 4 && end > DEFAULT_CAPACITY)
+            compact();
+        return removed;
+    }
+
+    /**
+     * Return an iterator over the edge references in insertion order. Its remove method removes the last
+     * edge returned by nextInt from this list only.
+     */
+    PrimitiveIterator.OfInt iterator()
+    {
+        return new PrimitiveIterator.OfInt() {
+            private int cursor = nextSlot(0);
+            private int last = -1;
+            private final int expectedCompactions = compactions;
+
+            @Override
+            public boolean hasNext()
+            {
+                cursor = nextSlot(cursor);
+                return cursor < end;
+            }
+
+            @Override
+            public int nextInt()
+            {
+                if (expectedCompactions != compactions)
+                    throw new ConcurrentModificationException();
+                cursor = nextSlot(cursor);
+                if (cursor >= end)
+                    throw new NoSuchElementException();
+                last = cursor;
+                cursor = nextSlot(cursor + 1);
+                return edges[last];
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == -1 || ids[last] == EMPTY)
+                    throw new IllegalStateException();
+                if (expectedCompactions != compactions)
+                    throw new ConcurrentModificationException();
+                removeSlot(last);
+                last = -1;
+            }
+        };
+    }
+
+    /**
+     * Return the first used slot starting from the given slot, or end if there is none.
+     */
+    private int nextSlot(int slot)
+    {
+        while (slot < end && ids[slot] == EMPTY)
+            slot++;
+        return slot;
+    }
+
+    /**
+     * Grow the arrays of the slots to the given length.
+     */
+    private void grow(int length)
+    {
+        ids = Arrays.copyOf(ids, length);
+        edges = Arrays.copyOf(edges, length);
+    }
+
+    /**
+     * Empty the slot and remove it from the index.
+     */
+    private void removeSlot(int slot)
+    {
+        if (keys != null)
+            delete(ids[slot]);
+        ids[slot] = EMPTY;
+        size--;
+        if (size == 0)
+            end = 0;
+    }
+
+    /**
+     * Return the slot of the edge to the given destination, or -1 if there is no such edge.
+     */
+    private int find(int dest)
+    {
+        if (keys != null)
+        {
+            int mask = keys.length - 1;
+            for (int bucket = hash(dest) & mask; keys[bucket] != EMPTY; bucket = (bucket + 1) & mask)
+            {
+                if (keys[bucket] == dest)
+                    return slots[bucket];
+            }
+            return -1;
+        }
+        for (int slot = 0; slot < end; slot++)
+        {
+            if (ids[slot] == dest)
+                return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Move the edges to the beginning of the array, so that there are no empty slots between them.
+     */
+    private void compact()
+    {
+        int count = 0;
+        for (int slot = 0; slot < end; slot++)
+        {
+            if (ids[slot] != EMPTY)
+            {
+                ids[count] = ids[slot];
+                edges[count++] = edges[slot];
+            }
+        }
+        end = count;
+        compactions++;
+        if (keys != null)
+            buildIndex(ids.length);
+    }
+
+    /**
+     * Create the hash index for the edges in the list. The number of buckets is the smallest power of two
+     * that is at least twice the given capacity. The arrays of the old index are used again if they have
+     * that size, so removing and adding edges does not allocate.
+     */
+    private void buildIndex(int capacity)
+    {
+        int buckets = Integer.highestOneBit(Math.max(capacity, INDEX_THRESHOLD) * 2 - 1) << 1;
+        if (keys == null || keys.length != buckets)
+        {
+            keys = new int[buckets];
+            slots = new int[buckets];
+        }
+        Arrays.fill(keys, EMPTY);
+        for (int slot = 0; slot < end; slot++)
+        {
+            if (ids[slot] != EMPTY)
+                put(ids[slot], slot);
+        }
+    }
+
+    /**
+     * Put the destination to the index. If the index would be more than half full, it is rebuilt with
+     * twice as many buckets, which also indexes the new slot.
+     */
+    private void put(int dest, int slot)
+    {
+        if (2 * size > keys.length)
+        {
+            buildIndex(keys.length);
+            return;
+        }
+        int mask = keys.length - 1;
+        int bucket = hash(dest) & mask;
+        while (keys[bucket] != EMPTY)
+            bucket = (bucket + 1) & mask;
+        keys[bucket] = dest;
+        slots[bucket] = slot;
+    }
+
+    /**
+     * Remove the destination from the index. The following buckets of the probe sequence are shifted
+     * back, so no tombstone is needed.
+     */
+    private void delete(int dest)
+    {
+        int mask = keys.length - 1;
+        int bucket = hash(dest) & mask;
+        while (keys[bucket] != dest)
+            bucket = (bucket + 1) & mask;
+
+        int hole = bucket;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask)
+        {
+            int home = hash(keys[next]) & mask;
+            // The key can fill the hole if its home bucket is not between the hole and its bucket.
+            if (((next - home) & mask) >= ((next - hole) & mask))
+            {
+                keys[hole] = keys[next];
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    /**
+     * Spread the bits of the ID, so that consecutive IDs do not fill consecutive buckets.
+     */
+    private static int hash(int id)
+    {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,88 @@
+package lib;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AlternativePaths is the result of a k shortest paths query. It keeps the loopless paths from the start
+ * vertex to the target vertex in order of distance, the number of vertices that the searches of the query
+ * expanded, and whether the query has finished before it reached its bound on the expanded vertices.
+ *
+ * @author Yusuf Arslan
+ */
+public final class AlternativePaths
+{
+    // Data Fields
+    private final List<ShortestPath> paths;
+    private final long expanded;
+    private final boolean complete;
+
+    /**
+     * Create the result of a query.
+     *
+     * @param paths The paths in order of distance.
+     * @param expanded The number of expanded vertices.
+     * @param complete False if the bound has stopped the query.
+     */
+    AlternativePaths(List<ShortestPath> paths, long expanded, boolean complete)
+    {
+        this.paths = Collections.unmodifiableList(paths);
+        this.expanded = expanded;
+        this.complete = complete;
+    }
+
+    // Methods
+    /**
+     * Return the paths, the shortest one first. Each path has the number of vertices that the search which
+     * found it expanded.
+     */
+    public List<ShortestPath> getPaths()
+    {
+        return paths;
+    }
+
+    /**
+     * Return the number of paths, less than k if there are no more paths or the query is not complete.
+     */
+    public int size()
+    {
+        return paths.size();
+    }
+
+    /**
+     * Return the path with the given rank, 0 for the shortest path.
+     */
+    public ShortestPath get(int rank)
+    {
+        return paths.get(rank);
+    }
+
+    /**
+     * Return the number of vertices that all searches of the query expanded.
+     */
+    public long getExpanded()
+    {
+        return expanded;
+    }
+
+    /**
+     * Return false if the query has reached its bound on the expanded vertices. The paths are still the
+     * shortest ones in order, but there may be more paths than it has found.
+     */
+    public boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * Return the paths, one in a line.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int rank = 0; rank < paths.size(); rank++)
+            sb.append(rank + 1).append(". ").append(paths.get(rank)).append("\n");
+        return sb.append("Expanded: ").append(expanded).append(complete ? "" : " (bound reached)").toString();
+    }
+}
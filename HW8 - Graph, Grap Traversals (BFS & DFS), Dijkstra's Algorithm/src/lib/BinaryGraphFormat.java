@@ -0,0 +1,201 @@
+package lib;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * This class writes a MyGraph to a compact binary file and opens such files with a memory mapping.
+ *
+ * All numbers are little endian. The file has a header of HEADER_SIZE bytes, then the sections below
+ * one after another. The double sections come first, so they are aligned to 8 bytes.
+ *   header:          magic, version, flags (1 if directed), numV, numE, numProperties,
+ *                    numStrings, stringBytes, idTableLength (all int)
+ *   vertexWeights:   double[numV]
+ *   edgeWeights:     double[numE]
+ *   ids:             int[numV]            ID of each vertex index
+ *   labels:          int[numV]            string number of each label, -1 for null
+ *   propertyOffsets: int[numV + 1]        properties of vertex i are from propertyOffsets[i]
+ *   edgeOffsets:     int[numV + 1]        edges of vertex i are from edgeOffsets[i]
+ *   targets:         int[numE]            index of the destination of each edge
+ *   propertyKeys:    int[numProperties]   string number of each property key
+ *   propertyValues:  int[numProperties]   string number of each property value
+ *   idTable:         int[idTableLength]   index of each ID, -1 if there is no such vertex
+ *   stringOffsets:   int[numStrings + 1]  bytes of string k are from stringOffsets[k]
+ *   strings:         byte[stringBytes]    UTF-8 bytes of all strings
+ *
+ * Labels, property keys and property values are stored once in the string dictionary. The vertices
+ * and edges are in the order of MyGraph.freeze(), so the indexes are the same as the indexes of
+ * exportAdjacencyMatrix.
+ *
+ * @author Yusuf Arslan
+ */
+public final class BinaryGraphFormat
+{
+    /**
+     * First four bytes of the file, "MYGR".
+     */
+    static final int MAGIC = 0x5247594D;
+
+    /**
+     * Version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 64;
+
+    // Prevent instantiate a BinaryGraphFormat class object
+    private BinaryGraphFormat() {}
+
+    /**
+     * Write the graph to the file. An existing file is replaced.
+     *
+     * @param graph The graph to be written.
+     * @param file The file.
+     * @throws IOException if the file cannot be written or the graph is too large for the format
+     */
+    public static void write(MyGraph graph, Path file) throws IOException
+    {
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        int m = csr.getNumE();
+
+        // Build the string dictionary and the property arrays.
+        HashMap<String, Integer> dictionary = new HashMap<String, Integer>();
+        ArrayList<byte[]> strings = new ArrayList<byte[]>();
+        int[] labels = new int[n];
+        int[] propertyOffsets = new int[n + 1];
+        int numProperties = 0;
+        int maxId = -1;
+        for (int i = 0; i < n; i++)
+        {
+            Vertex v = csr.getVertex(i);
+            labels[i] = intern(v.getLabel(), dictionary, strings);
+            numProperties += v.getProperties().size();
+            propertyOffsets[i + 1] = numProperties;
+            maxId = Math.max(maxId, v.getId());
+        }
+        int[] propertyKeys = new int[numProperties];
+        int[] propertyValues = new int[numProperties];
+        int k = 0;
+        for (int i = 0; i < n; i++)
+        {
+            for (Map.Entry<String, String> property : csr.getVertex(i).getProperties().entrySet())
+            {
+                propertyKeys[k] = intern(property.getKey(), dictionary, strings);
+                propertyValues[k++] = intern(property.getValue(), dictionary, strings);
+            }
+        }
+        long stringBytes = 0;
+        for (byte[] bytes : strings)
+            stringBytes += bytes.length;
+
+        long size = HEADER_SIZE + 8L * (n + m) + 4L * (n + n + (n + 1) + (n + 1) + m)
+                    + 4L * (2L * numProperties + (maxId + 1) + strings.size() + 1) + stringBytes;
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Graph is too large for the binary format! - " + size + " bytes");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(csr.isDirected() ? 1 : 0).putInt(n).putInt(m)
+               .putInt(numProperties).putInt(strings.size()).putInt((int) stringBytes).putInt(maxId + 1);
+            out.position(HEADER_SIZE);
+
+            for (int i = 0; i < n; i++)
+                out.putDouble(csr.getVertex(i).getWeight());
+            for (int e = 0; e < m; e++)
+                out.putDouble(csr.weight(e));
+            for (int i = 0; i < n; i++)
+                out.putInt(csr.getId(i));
+            for (int i = 0; i < n; i++)
+                out.putInt(labels[i]);
+            for (int i = 0; i <= n; i++)
+                out.putInt(propertyOffsets[i]);
+            for (int i = 0; i <= n; i++)
+                out.putInt(i < n ? csr.edgeStart(i) : m);
+            for (int e = 0; e < m; e++)
+                out.putInt(csr.target(e));
+            for (int p = 0; p < numProperties; p++)
+                out.putInt(propertyKeys[p]);
+            for (int p = 0; p < numProperties; p++)
+                out.putInt(propertyValues[p]);
+            for (int id = 0; id <= maxId; id++)
+                out.putInt(csr.indexOf(id));
+            int offset = 0;
+            for (byte[] bytes : strings)
+            {
+                out.putInt(offset);
+                offset += bytes.length;
+            }
+            out.putInt(offset);
+            for (byte[] bytes : strings)
+                out.put(bytes);
+            out.force();
+        }
+    }
+
+    /**
+     * Open a file that is written by write. The file is mapped to memory and is not copied, so it opens
+     * in a time that does not depend on the size of the graph.
+     *
+     * @param file The file.
+     * @return The mapped graph.
+     * @throws IOException if the file cannot be read or it is not a graph file
+     */
+    public static MappedGraph open(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Not a graph file! - " + file);
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedGraph(buffer);
+        }
+    }
+
+    /**
+     * Read the file into a new MyGraph. Vertices keep their IDs, labels, weights and properties, and
+     * each edge list keeps its order.
+     *
+     * @param file The file.
+     * @return The graph.
+     * @throws IOException if the file cannot be read or it is not a graph file
+     */
+    public static MyGraph read(Path file) throws IOException
+    {
+        return open(file).toGraph();
+    }
+
+    /**
+     * Return the number of the string in the dictionary, the string is added if it is new.
+     */
+    private static int intern(String value, HashMap<String, Integer> dictionary, ArrayList<byte[]> strings)
+    {
+        if (value == null)
+            return -1;
+        Integer number = dictionary.get(value);
+        if (number == null)
+        {
+            number = strings.size();
+            dictionary.put(value, number);
+            strings.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return number;
+    }
+}
@@ -0,0 +1,353 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * BreadthFirstSearch is the breadth-first search of BFSDifferenceDFS on primitive arrays.
+ *
+ * When a vertex is reached again from a vertex of the previous level with a shorter distance, its parent
+ * and distance are changed to that vertex, so every vertex gets the shortest distance through a parent in
+ * the previous level. If two parents give the same distance, the one that is earlier in the queue is kept.
+ *
+ * Two modes are available:
+ *   run is the sequential search. It keeps the level counter of BFSDifferenceDFS, which is increased
+ *   before a vertex is processed if the previous vertex has found a new vertex, so its results are
+ *   exactly the results of BFSDifferenceDFS. Every vertex enters the queue at most once, so the queue is
+ *   one int array that never wraps.
+ *   runParallel is the level-synchronous search for large graphs. The vertices of a level are expanded by
+ *   the workers of a ForkJoinPool. A level is expanded top-down from the edges of the frontier while the
+ *   frontier is small, and bottom-up from the edges that enter the unvisited vertices when the frontier is
+ *   large. Its levels are the hop counts from the start vertex, and its results are the results of the
+ *   sequential search with these levels, whatever the number of workers.
+ *
+ * @author Yusuf Arslan
+ */
+public final class BreadthFirstSearch
+{
+    // Data Fields
+    /**
+     * Switch to bottom-up when the edges of the frontier are more than the unexplored edges / ALPHA.
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * Switch back to top-down when the frontier has less than numV / BETA vertices.
+     */
+    private static final int BETA = 24;
+
+    /**
+     * Number of vertices that a worker takes at once.
+     */
+    private static final int CHUNK = 1024;
+
+    private final CsrGraph graph;
+
+    /**
+     * Distance of each vertex through its parent, 0 for the vertices that are not reached.
+     */
+    private final double[] distance;
+
+    /**
+     * Parent of each vertex, -1 for the start vertex and the vertices that are not reached.
+     */
+    private final int[] parent;
+
+    /**
+     * Level of each vertex, -1 for the vertices that are not reached.
+     */
+    private final int[] level;
+
+    /**
+     * Vertices in the order they enter the queue.
+     */
+    private final int[] queue;
+
+    /**
+     * Number of vertices in the queue.
+     */
+    private int size;
+
+    /**
+     * Create a search on the snapshot.
+     *
+     * @param graph The snapshot of the graph.
+     */
+    public BreadthFirstSearch(CsrGraph graph)
+    {
+        this.graph = graph;
+        int n = graph.getNumV();
+        distance = new double[n];
+        parent = new int[n];
+        level = new int[n];
+        queue = new int[n];
+    }
+
+    // Methods
+    /**
+     * Search from the start vertex with the level counter of BFSDifferenceDFS.
+     *
+     * @param start The index of the start vertex.
+     */
+    public void run(int start)
+    {
+        reset(start);
+
+        // If a vertex is identified as visited, it means that the level has been changed.
+        int currentLevel = 0;
+        boolean isIdentified = true;
+        int head = 0;
+        while (head < size)
+        {
+            int current = queue[head++];
+            if (isIdentified)
+                currentLevel++;
+            isIdentified = false;
+
+            for (int e = graph.edgeStart(current); e < graph.edgeEnd(current); e++)
+            {
+                int neighbor = graph.target(e);
+                if (level[neighbor] == -1)
+                {
+                    level[neighbor] = currentLevel;
+                    queue[size++] = neighbor;
+                    parent[neighbor] = current;
+                    distance[neighbor] = distance[current] + graph.weight(e);
+                    isIdentified = true;
+                }
+                else if (level[neighbor] - 1 == level[current]
+                         && distance[neighbor] > distance[current] + graph.weight(e))
+                {
+                    // There is a shorter path from the previous level.
+                    distance[neighbor] = distance[current] + graph.weight(e);
+                    parent[neighbor] = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * Search from the start vertex level by level on the workers of the pool. The levels are hop counts.
+     *
+     * @param start The index of the start vertex.
+     * @param pool The pool that expands the levels.
+     */
+    public void runParallel(int start, ForkJoinPool pool)
+    {
+        reset(start);
+        int n = graph.getNumV();
+        CsrGraph reverse = graph.reverse();
+        int[] rank = new int[n];
+        AtomicIntegerArray firstRank = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++)
+            firstRank.set(v, Integer.MAX_VALUE);
+        long[] frontierBits = new long[(n + 63) >>> 6];
+
+        int[] frontier = { start };
+        long unexplored = graph.getNumE() - graph.degree(start);
+        boolean bottomUp = false;
+        for (int depth = 0; frontier.length > 0; depth++)
+        {
+            int[] current = frontier;
+            int currentLevel = depth;
+            long frontierEdges = 0;
+            for (int i = 0; i < current.length; i++)
+            {
+                rank[current[i]] = i;
+                frontierEdges += graph.degree(current[i]);
+            }
+            if (!bottomUp && frontierEdges > unexplored / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && current.length < n / BETA)
+                bottomUp = false;
+
+            int[] next;
+            if (bottomUp)
+            {
+                Arrays.fill(frontierBits, 0);
+                for (int v : current)
+                    frontierBits[v >>> 6] |= 1L << v;
+                // Every unvisited vertex looks for its parents in the frontier.
+                Parallel.forEach(pool, chunks(n), c -> {
+                    for (int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++)
+                    {
+                        if (level[v] == -1)
+                            chooseParent(reverse, v, rank, frontierBits, null, currentLevel, firstRank);
+                    }
+                });
+                next = order(pool, current, firstRank);
+                for (int v : next)
+                    level[v] = currentLevel + 1;
+            }
+            else
+            {
+                // The frontier marks the first vertex in the queue that reaches each new vertex.
+                Parallel.forEach(pool, chunks(current.length), c -> {
+                    for (int i = c * CHUNK; i < Math.min(current.length, (c + 1) * CHUNK); i++)
+                    {
+                        for (int e = graph.edgeStart(current[i]); e < graph.edgeEnd(current[i]); e++)
+                        {
+                            int v = graph.target(e);
+                            if (level[v] == -1)
+                                firstRank.accumulateAndGet(v, i, Math::min);
+                        }
+                    }
+                });
+                int[] found = order(pool, current, firstRank);
+                Parallel.forEach(pool, chunks(found.length), c -> {
+                    for (int k = c * CHUNK; k < Math.min(found.length, (c + 1) * CHUNK); k++)
+                        chooseParent(reverse, found[k], rank, null, level, currentLevel, null);
+                });
+                for (int v : found)
+                    level[v] = currentLevel + 1;
+                next = found;
+            }
+
+            System.arraycopy(next, 0, queue, size, next.length);
+            size += next.length;
+            for (int v : next)
+                unexplored -= graph.degree(v);
+            frontier = next;
+        }
+    }
+
+    /**
+     * Return the distance of the vertex with the given index through its parent.
+     */
+    public double getDistance(int index)
+    {
+        return distance[index];
+    }
+
+    /**
+     * Return the index of the parent of the vertex with the given index, -1 if it has no parent.
+     */
+    public int getParent(int index)
+    {
+        return parent[index];
+    }
+
+    /**
+     * Return the level of the vertex with the given index, -1 if it is not reached.
+     */
+    public int getLevel(int index)
+    {
+        return level[index];
+    }
+
+    /**
+     * Return the vertex indexes in the order they entered the queue.
+     */
+    public int[] getOrder()
+    {
+        return Arrays.copyOf(queue, size);
+    }
+
+    /**
+     * Return the sum of the weights of the edges from the parents, accumulated in an int in index order
+     * as BFSDifferenceDFS does.
+     */
+    public int getTotalDistance()
+    {
+        int total = 0;
+        for (int v = 0; v < distance.length; v++)
+            total += (distance[v] - (parent[v] == -1 ? 0 : distance[parent[v]]));
+        return total;
+    }
+
+    /**
+     * Clear the state and put the start vertex to the queue.
+     */
+    private void reset(int start)
+    {
+        Arrays.fill(distance, 0);
+        Arrays.fill(parent, -1);
+        Arrays.fill(level, -1);
+        level[start] = 0;
+        queue[0] = start;
+        size = 1;
+    }
+
+    /**
+     * Give the vertex the parent in the frontier with the shortest distance, the earlier one in the queue if
+     * the distances are equal. A vertex is in the frontier if its bit is set in frontierBits, or if its
+     * level is currentLevel when there are no bits. If firstRank is given, the rank of the first vertex in
+     * the queue that reaches the vertex is also set.
+     */
+    private void chooseParent(CsrGraph reverse, int v, int[] rank, long[] frontierBits, int[] levels,
+                              int currentLevel, AtomicIntegerArray firstRank)
+    {
+        int best = -1;
+        double bestDistance = 0;
+        for (int e = reverse.edgeStart(v); e < reverse.edgeEnd(v); e++)
+        {
+            int x = reverse.target(e);
+            boolean inFrontier = (frontierBits != null)
+                                 ? (frontierBits[x >>> 6] & (1L << x)) != 0
+                                 : levels[x] == currentLevel;
+            if (!inFrontier)
+                continue;
+            if (firstRank != null && rank[x] < firstRank.get(v))
+                firstRank.set(v, rank[x]);
+            double candidate = distance[x] + reverse.weight(e);
+            if (best == -1 || candidate < bestDistance || (candidate == bestDistance && rank[x] < rank[best]))
+            {
+                best = x;
+                bestDistance = candidate;
+            }
+        }
+        if (best != -1)
+        {
+            parent[v] = best;
+            distance[v] = bestDistance;
+        }
+    }
+
+    /**
+     * Return the new vertices in queue order. Each frontier vertex takes the new vertices that it reaches
+     * first, in the order of its edges, and the chunks of the frontier are joined in order.
+     */
+    private int[] order(ForkJoinPool pool, int[] frontier, AtomicIntegerArray firstRank)
+    {
+        int[][] parts = new int[chunks(frontier.length)][];
+        Parallel.forEach(pool, parts.length, c -> {
+            int[] part = new int[16];
+            int count = 0;
+            for (int i = c * CHUNK; i < Math.min(frontier.length, (c + 1) * CHUNK); i++)
+            {
+                for (int e = graph.edgeStart(frontier[i]); e < graph.edgeEnd(frontier[i]); e++)
+                {
+                    int v = graph.target(e);
+                    if (level[v] == -1 && firstRank.get(v) == i)
+                    {
+                        if (count == part.length)
+                            part = Arrays.copyOf(part, 2 * count);
+                        part[count++] = v;
+                    }
+                }
+            }
+            parts[c] = Arrays.copyOf(part, count);
+        });
+
+        int total = 0;
+        for (int[] part : parts)
+            total += part.length;
+        int[] next = new int[total];
+        int position = 0;
+        for (int[] part : parts)
+        {
+            System.arraycopy(part, 0, next, position, part.length);
+            position += part.length;
+        }
+        return next;
+    }
+
+    /**
+     * Return the number of chunks of the given number of items.
+     */
+    private static int chunks(int count)
+    {
+        return (count + CHUNK - 1) / CHUNK;
+    }
+}
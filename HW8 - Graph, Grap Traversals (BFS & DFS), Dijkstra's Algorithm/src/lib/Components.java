@@ -0,0 +1,115 @@
+package lib;
+
+/**
+ * Components is the result of a component analysis of GraphAnalysis. Each vertex of the snapshot gets the
+ * number of its component, from 0 to getComponentCount() - 1, and the vertices of each component are kept
+ * together in one array, so every query takes O(1) time or the size of its answer.
+ *
+ * @author Yusuf Arslan
+ */
+public final class Components
+{
+    // Data Fields
+    private final CsrGraph graph;
+
+    /**
+     * Component of each vertex index.
+     */
+    private final int[] component;
+
+    /**
+     * Vertex indexes of the component c are in the positions from start[c] to start[c + 1] - 1.
+     */
+    private final int[] start;
+    private final int[] members;
+
+    /**
+     * Create the result from the component numbers of the vertices.
+     *
+     * @param graph The snapshot that is analyzed.
+     * @param component The component of each vertex index.
+     * @param count The number of components.
+     */
+    Components(CsrGraph graph, int[] component, int count)
+    {
+        this.graph = graph;
+        this.component = component;
+        start = new int[count + 1];
+        for (int c : component)
+            start[c + 1]++;
+        for (int c = 0; c < count; c++)
+            start[c + 1] += start[c];
+        int[] next = new int[count];
+        System.arraycopy(start, 0, next, 0, count);
+        members = new int[component.length];
+        for (int v = 0; v < component.length; v++)
+            members[next[component[v]]++] = v;
+    }
+
+    // Methods
+    /**
+     * Return the snapshot that is analyzed.
+     */
+    public CsrGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Return the number of components.
+     */
+    public int getComponentCount()
+    {
+        return start.length - 1;
+    }
+
+    /**
+     * Return the component of the vertex with the given index.
+     */
+    public int getComponent(int index)
+    {
+        return component[index];
+    }
+
+    /**
+     * Return the component of the vertex with the given ID.
+     *
+     * @throws IllegalArgumentException if there is no vertex with the ID
+     */
+    public int getComponentOf(int id)
+    {
+        int index = graph.indexOf(id);
+        if (index == -1)
+            throw new IllegalArgumentException("There is no vertex with the ID! - " + id);
+        return component[index];
+    }
+
+    /**
+     * Return true if the vertices with the given IDs are in the same component.
+     *
+     * @throws IllegalArgumentException if there is no vertex with one of the IDs
+     */
+    public boolean isSameComponent(int sourceId, int destId)
+    {
+        return getComponentOf(sourceId) == getComponentOf(destId);
+    }
+
+    /**
+     * Return the number of vertices in the component.
+     */
+    public int getSize(int component)
+    {
+        return start[component + 1] - start[component];
+    }
+
+    /**
+     * Return the IDs of the vertices in the component, in index order.
+     */
+    public int[] getMembers(int component)
+    {
+        int[] ids = new int[getSize(component)];
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = graph.getId(members[start[component] + i]);
+        return ids;
+    }
+}
@@ -0,0 +1,280 @@
+package lib;
+
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * ConcurrentGraph is a DynamicGraph that many reader threads can use while a writer changes it.
+ *
+ * The changes are applied to a MyGraph that only a writer holding the write lock can touch. Readers never
+ * touch it. They read a snapshot, which is a read-only copy of the graph at one version, published through
+ * a volatile field. A query sees one whole version of the graph, so Dijkstras and the traversals that run
+ * on snapshot() give the result of that version even if the writer changes the graph at the same time.
+ *
+ * The writer creates the new snapshot at the end of each update that changes the graph, before it
+ * releases the lock. Readers only read the volatile field, so they never wait and never copy. A snapshot
+ * costs O(V + E) on the writer's thread, so the writer should apply many changes at once with update.
+ *
+ * @author Yusuf Arslan
+ */
+public final class ConcurrentGraph implements DynamicGraph
+{
+    // Data Fields
+    /**
+     * The graph that the writers change, guarded by writeLock.
+     */
+    private final MyGraph graph;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * The last published snapshot.
+     */
+    private volatile Snapshot current;
+
+    /**
+     * A read-only copy of the graph and the version it is copied at.
+     */
+    private static final class Snapshot
+    {
+        private final MyGraph graph;
+        private final long version;
+
+        Snapshot(MyGraph graph, long version)
+        {
+            this.graph = graph;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Create an empty graph.
+     *
+     * @param directed True if the graph is directed.
+     */
+    public ConcurrentGraph(boolean directed)
+    {
+        this(new MyGraph(directed));
+    }
+
+    /**
+     * Create a concurrent graph that owns the given graph. The graph must not be used directly after this.
+     *
+     * @param graph The graph to be shared.
+     */
+    public ConcurrentGraph(MyGraph graph)
+    {
+        this.graph = graph;
+        this.current = new Snapshot(copy(graph), graph.getVersion());
+    }
+
+    // Methods
+    /**
+     * Return the snapshot of the latest version of the graph, without waiting. The snapshot is shared by
+     * the readers and is read-only, its methods that would change it throw UnsupportedOperationException.
+     *
+     * @return The snapshot.
+     */
+    public MyGraph snapshot()
+    {
+        return current.graph;
+    }
+
+    /**
+     * Return the version of the graph in the latest snapshot.
+     */
+    public long getVersion()
+    {
+        return current.version;
+    }
+
+    /**
+     * Apply the changes to the graph while holding the write lock, and publish a new snapshot if they have
+     * changed it. Readers see all of the changes or none of them. The vertices of the graph, for example
+     * their properties, must be changed only here.
+     *
+     * The changes are not rolled back if the consumer throws. The changes that it has made before are
+     * published like the others and the exception is thrown to the caller, so the snapshot always shows
+     * the graph that the next update starts from.
+     *
+     * @param changes The changes to be applied.
+     */
+    public void update(Consumer<MyGraph> changes)
+    {
+        writeLock.lock();
+        try
+        {
+            changes.accept(graph);
+        }
+        finally
+        {
+            try
+            {
+                if (graph.getVersion() != current.version)
+                    current = new Snapshot(copy(graph), graph.getVersion());
+            }
+            finally
+            {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int getNumV()
+    {
+        return snapshot().getNumV();
+    }
+
+    @Override
+    public boolean isDirected()
+    {
+        return graph.isDirected();
+    }
+
+    @Override
+    public void insert(Edge edge)
+    {
+        update(g -> g.insert(edge));
+    }
+
+    @Override
+    public boolean isEdge(int source, int dest)
+    {
+        return snapshot().isEdge(source, dest);
+    }
+
+    @Override
+    public Edge getEdge(int source, int dest)
+    {
+        return snapshot().getEdge(source, dest);
+    }
+
+    /**
+     * Return an iterator over the edges of the vertex in the snapshot. It cannot remove edges.
+     */
+    @Override
+    public Iterator<Edge> edgeIterator(int source)
+    {
+        Iterator<Edge> edges = snapshot().edgeIterator(source);
+        return new Iterator<Edge>() {
+            @Override
+            public boolean hasNext()
+            {
+                return edges.hasNext();
+            }
+
+            @Override
+            public Edge next()
+            {
+                return edges.next();
+            }
+        };
+    }
+
+    @Override
+    public Vertex newVertex(String label, double weight)
+    {
+        return graph.newVertex(label, weight);
+    }
+
+    /**
+     * Add a copy of the vertex to the graph, so the caller cannot change the graph through the vertex. The
+     * vertex gets the ID of its copy.
+     */
+    @Override
+    public void addVertex(Vertex vertex)
+    {
+        update(g -> {
+            Vertex added = (Vertex) vertex.clone();
+            g.addVertex(added);
+            vertex.setId(added.getId());
+        });
+    }
+
+    @Override
+    public void addEdge(int sourceId, int destinationId, double weight)
+    {
+        update(g -> g.addEdge(sourceId, destinationId, weight));
+    }
+
+    @Override
+    public boolean removeEdge(int sourceId, int destinationId)
+    {
+        boolean[] removed = new boolean[1];
+        update(g -> removed[0] = g.removeEdge(sourceId, destinationId));
+        return removed[0];
+    }
+
+    @Override
+    public void removeVertex(int vertexId)
+    {
+        update(g -> g.removeVertex(vertexId));
+    }
+
+    @Override
+    public void removeVertex(String label)
+    {
+        update(g -> g.removeVertex(label));
+    }
+
+    /**
+     * Return the vertex with the given ID in the snapshot, null if there is no such vertex.
+     */
+    public Vertex getVertex(int id)
+    {
+        return snapshot().getVertex(id);
+    }
+
+    @Override
+    public MyGraph filterVertices(String key, String filter)
+    {
+        return snapshot().filterVertices(key, filter);
+    }
+
+    @Override
+    public double[][] exportAdjacencyMatrix()
+    {
+        return snapshot().exportAdjacencyMatrix();
+    }
+
+    @Override
+    public void printGraph()
+    {
+        snapshot().printGraph();
+    }
+
+    /**
+     * Copy the vertices, with their IDs and properties, and the edges of the graph in the same order. The
+     * copy is made read-only, which also creates its compressed snapshot, so the readers do not create it
+     * at the same time.
+     */
+    private static MyGraph copy(MyGraph graph)
+    {
+        CsrGraph csr = graph.freeze();
+        MyGraph copy = new MyGraph(graph.isDirected());
+        for (int i = 0; i < csr.getNumV(); i++)
+            copy.addVertex((Vertex) csr.getVertex(i).clone(), csr.getId(i));
+
+        int numE = csr.getNumE();
+        int[] sources = new int[numE];
+        int[] dests = new int[numE];
+        double[] weights = new double[numE];
+        for (int i = 0; i < csr.getNumV(); i++)
+        {
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++)
+            {
+                sources[e] = csr.getId(i);
+                dests[e] = csr.getId(csr.target(e));
+                weights[e] = csr.weight(e);
+            }
+        }
+        // Both directions of undirected edges are in the snapshot, so they are not mirrored again.
+        copy.addEdges(sources, dests, weights, numE, false);
+        copy.makeReadOnly();
+        return copy;
+    }
+}
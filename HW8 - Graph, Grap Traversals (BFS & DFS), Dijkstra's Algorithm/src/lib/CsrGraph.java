@@ -0,0 +1,275 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * CsrGraph is a read-only snapshot of a MyGraph in compressed sparse row form.
+ *
+ * The vertices are mapped to indexes from 0 to n - 1 in the order of MyGraph.getVertices(), which is the
+ * same mapping that exportAdjacencyMatrix uses. The edges of the vertex with index i are stored in the
+ * positions from edgeStart(i) to edgeEnd(i) - 1 of two parallel arrays. One of them keeps the index of
+ * the destination vertex and the other one keeps the weight of the edge. The edges of a vertex are in the
+ * same order as the edgeIterator of the graph returns them.
+ *
+ * Traversing the snapshot does not allocate any object, so it should be used by the algorithms that
+ * read the graph many times without changing it.
+ *
+ * @author Yusuf Arslan
+ */
+public final class CsrGraph
+{
+    // Data Fields
+    /**
+     * Largest number of vertices that a dense adjacency matrix is created for. The matrix of this size
+     * takes 128 MB, larger graphs should be exported with toSparseMatrix.
+     */
+    public static final int MAX_DENSE_SIZE = 4096;
+
+    /**
+     * Flag to indicate whether the graph is directed.
+     */
+    private final boolean directed;
+
+    /**
+     * Vertices of the graph by their indexes.
+     */
+    private final Vertex[] vertices;
+
+    /**
+     * Index of each vertex ID, -1 if there is no vertex with that ID.
+     */
+    private final int[] indexOfId;
+
+    /**
+     * Edges of the vertex i are in the positions from offsets[i] to offsets[i + 1] - 1.
+     */
+    private final int[] offsets;
+
+    /**
+     * Index of the destination vertex of each edge.
+     */
+    private final int[] targets;
+
+    /**
+     * Weight of each edge.
+     */
+    private final double[] weights;
+
+    /**
+     * Snapshot with the reversed edges, it is created when it is first asked for.
+     */
+    private CsrGraph reverse;
+
+    /**
+     * Create the snapshot of the graph.
+     *
+     * @param graph The graph to be copied.
+     */
+    CsrGraph(MyGraph graph)
+    {
+        directed = graph.isDirected();
+        int n = graph.getVertices().size();
+        vertices = new Vertex[n];
+
+        // Map the vertices to indexes from 0 to n - 1.
+        int maxId = -1;
+        int index = 0;
+        for (Vertex v : graph.getVertices())
+        {
+            vertices[index++] = v;
+            maxId = Math.max(maxId, v.getId());
+        }
+        indexOfId = new int[maxId + 1];
+        Arrays.fill(indexOfId, -1);
+        for (int i = 0; i < n; i++)
+            indexOfId[vertices[i].getId()] = i;
+
+        // Count the edges, then copy them from the edge store.
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] = offsets[i] + graph.edgesOf(vertices[i].getId()).size();
+        targets = new int[offsets[n]];
+        weights = new double[offsets[n]];
+        EdgeStore store = graph.edgeStore();
+        for (int i = 0; i < n; i++)
+        {
+            int position = offsets[i];
+            PrimitiveIterator.OfInt edges = graph.edgesOf(vertices[i].getId()).iterator();
+            while (edges.hasNext())
+            {
+                int ref = edges.nextInt();
+                targets[position] = indexOfId[store.dest(ref)];
+                weights[position++] = store.weight(ref);
+            }
+        }
+    }
+
+    /**
+     * Create a snapshot from its arrays. The arrays are not copied.
+     */
+    private CsrGraph(boolean directed, Vertex[] vertices, int[] indexOfId, int[] offsets, int[] targets,
+                     double[] weights)
+    {
+        this.directed = directed;
+        this.vertices = vertices;
+        this.indexOfId = indexOfId;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // Methods
+    /**
+     * Return the number of vertices.
+     */
+    public int getNumV()
+    {
+        return vertices.length;
+    }
+
+    /**
+     * Return the number of edges. An undirected edge is counted once for each direction.
+     */
+    public int getNumE()
+    {
+        return targets.length;
+    }
+
+    /**
+     * Return true if the graph is directed.
+     */
+    public boolean isDirected()
+    {
+        return directed;
+    }
+
+    /**
+     * Return the vertex with the given index.
+     */
+    public Vertex getVertex(int index)
+    {
+        return vertices[index];
+    }
+
+    /**
+     * Return the ID of the vertex with the given index.
+     */
+    public int getId(int index)
+    {
+        return vertices[index].getId();
+    }
+
+    /**
+     * Return the index of the vertex with the given ID, or -1 if there is no such vertex.
+     */
+    public int indexOf(int id)
+    {
+        return (id < 0 || id >= indexOfId.length) ? -1 : indexOfId[id];
+    }
+
+    /**
+     * Return the position of the first edge of the vertex with the given index.
+     */
+    public int edgeStart(int index)
+    {
+        return offsets[index];
+    }
+
+    /**
+     * Return the position after the last edge of the vertex with the given index.
+     */
+    public int edgeEnd(int index)
+    {
+        return offsets[index + 1];
+    }
+
+    /**
+     * Return the number of edges of the vertex with the given index.
+     */
+    public int degree(int index)
+    {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Return the index of the destination vertex of the edge at the given position.
+     */
+    public int target(int edge)
+    {
+        return targets[edge];
+    }
+
+    /**
+     * Return the weight of the edge at the given position.
+     */
+    public double weight(int edge)
+    {
+        return weights[edge];
+    }
+
+    /**
+     * Create the adjacency matrix of the snapshot. Missing edges are Double.POSITIVE_INFINITY.
+     *
+     * @return The adjacency matrix whose rows and columns are vertex indexes.
+     * @throws IllegalStateException if the graph has more vertices than MAX_DENSE_SIZE
+     */
+    public double[][] toAdjacencyMatrix()
+    {
+        return toSparseMatrix().toDense();
+    }
+
+    /**
+     * Return the snapshot with the same vertex indexes and the reversed edges, so the edges of a vertex are
+     * the edges that enter it in this snapshot. The reversed edge keeps the weight of the edge. An undirected
+     * snapshot is its own reverse. The reverse is created once and shared.
+     *
+     * @return The reversed snapshot.
+     */
+    public CsrGraph reverse()
+    {
+        if (!directed)
+            return this;
+        // The snapshot is immutable, so two threads that create it at the same time create the same graph.
+        CsrGraph reversed = reverse;
+        if (reversed == null)
+        {
+            int n = vertices.length;
+            int[] reverseOffsets = new int[n + 1];
+            for (int e = 0; e < targets.length; e++)
+                reverseOffsets[targets[e] + 1]++;
+            for (int i = 0; i < n; i++)
+                reverseOffsets[i + 1] += reverseOffsets[i];
+
+            // Sources are visited in index order, so each reversed list is ordered by source index.
+            int[] reverseTargets = new int[targets.length];
+            double[] reverseWeights = new double[targets.length];
+            int[] next = Arrays.copyOf(reverseOffsets, n);
+            for (int i = 0; i < n; i++)
+            {
+                for (int e = offsets[i]; e < offsets[i + 1]; e++)
+                {
+                    int position = next[targets[e]]++;
+                    reverseTargets[position] = i;
+                    reverseWeights[position] = weights[e];
+                }
+            }
+            reversed = new CsrGraph(true, vertices, indexOfId, reverseOffsets, reverseTargets, reverseWeights);
+            reversed.reverse = this;
+            reverse = reversed;
+        }
+        return reversed;
+    }
+
+    /**
+     * Create the sparse adjacency matrix of the snapshot. It needs memory for the edges only.
+     *
+     * @return The sparse matrix whose rows and columns are vertex indexes.
+     */
+    public SparseMatrix toSparseMatrix()
+    {
+        return new SparseMatrix(vertices.length, offsets.clone(), targets.clone(), weights.clone());
+    }
+}
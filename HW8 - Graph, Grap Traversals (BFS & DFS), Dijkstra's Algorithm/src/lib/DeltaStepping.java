@@ -0,0 +1,432 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DeltaStepping is a parallel single source shortest path engine for large weighted graphs.
+ *
+ * The vertices are kept in buckets of width delta by their tentative distances. The buckets are emptied
+ * in increasing order. The light edges of a bucket, whose weights are at most delta, are relaxed in
+ * phases until the bucket stays empty, and then the heavy edges of its vertices are relaxed once. The
+ * edges of the vertices of a phase are relaxed by the workers of a ForkJoinPool, and a distance is
+ * lowered with compare-and-set, so the order of the workers does not change the result. A small delta
+ * gives Dijkstra's order with little parallel work in a phase, and a large delta gives the Bellman-Ford
+ * order with more work that can be done again.
+ *
+ * The graph is frozen and the boosting values are read once when the engine is created, as in
+ * DijkstraBatch. The boosting value of a vertex is subtracted from the weights of its edges, except the
+ * edges of the source vertex, and the trees are the trees of Dijkstras.dijkstras: the distances are the
+ * same, and the predecessor of a vertex is the first vertex in Dijkstra's order that gives its distance.
+ * Buckets need non-negative weights after boosting, and Dijkstra's order of the vertices with the same
+ * distance is only known without zero weights. If the graph has a weight that is not positive for a
+ * source, its tree is found by the sequential search instead.
+ *
+ * @author Yusuf Arslan
+ */
+public final class DeltaStepping
+{
+    // Data Fields
+    /**
+     * Number of vertices that a worker takes at once.
+     */
+    private static final int CHUNK = 256;
+
+    private final CsrGraph graph;
+    private final double[] boost;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    /**
+     * Largest weight after boosting, the raw weights of the edges of a source included.
+     */
+    private final double maxWeight;
+
+    /**
+     * True for the vertices that have an edge whose weight is not positive after boosting, or before it for
+     * the edges of a source.
+     */
+    private final boolean[] nonPositiveBoosted;
+    private final boolean[] nonPositiveRaw;
+    private final int nonPositiveCount;
+
+    /**
+     * Create an engine whose delta is the largest weight divided by the average degree.
+     *
+     * @param graph The graph.
+     * @param pool The pool that relaxes the edges, or null to relax them on the calling thread.
+     */
+    public DeltaStepping(MyGraph graph, ForkJoinPool pool)
+    {
+        this(graph, 0, pool);
+    }
+
+    /**
+     * Create an engine with the given bucket width.
+     *
+     * @param graph The graph.
+     * @param delta The width of a bucket, or 0 to choose it from the graph.
+     * @param pool The pool that relaxes the edges, or null to relax them on the calling thread.
+     * @throws IllegalArgumentException if delta is negative
+     */
+    public DeltaStepping(MyGraph graph, double delta, ForkJoinPool pool)
+    {
+        if (!(delta >= 0))
+            throw new IllegalArgumentException("Delta should be non-negative! - " + delta);
+        this.graph = graph.freeze();
+        this.boost = Dijkstras.boostValues(this.graph);
+        this.pool = pool;
+
+        int n = this.graph.getNumV();
+        nonPositiveBoosted = new boolean[n];
+        nonPositiveRaw = new boolean[n];
+        double max = 0;
+        int count = 0;
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = this.graph.edgeStart(u); e < this.graph.edgeEnd(u); e++)
+            {
+                double weight = this.graph.weight(e);
+                max = Math.max(max, Math.max(weight, weight - boost[u]));
+                nonPositiveRaw[u] |= weight <= 0;
+                nonPositiveBoosted[u] |= weight - boost[u] <= 0;
+            }
+            if (nonPositiveBoosted[u])
+                count++;
+        }
+        maxWeight = max;
+        nonPositiveCount = count;
+
+        if (delta == 0)
+        {
+            double degree = (n == 0) ? 1 : Math.max(1.0, (double) this.graph.getNumE() / n);
+            delta = (max > 0) ? max / degree : 1;
+        }
+        this.delta = delta;
+    }
+
+    // Methods
+    /**
+     * Return the snapshot that the searches run on.
+     */
+    public CsrGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Return the width of a bucket.
+     */
+    public double getDelta()
+    {
+        return delta;
+    }
+
+    /**
+     * Find the shortest path tree of the source vertex.
+     *
+     * @param sourceId The ID of the source vertex.
+     * @return The tree, the same as the tree of DijkstraBatch.
+     * @throws IllegalArgumentException if there is no vertex with the ID
+     */
+    public ShortestPathTree tree(int sourceId)
+    {
+        int s = graph.indexOf(sourceId);
+        if (s == -1)
+            throw new IllegalArgumentException("There is no vertex with the ID! - " + sourceId);
+        int n = graph.getNumV();
+        double[] distance = new double[n];
+        int[] previous = new int[n];
+
+        if (nonPositiveRaw[s] || nonPositiveCount - (nonPositiveBoosted[s] ? 1 : 0) > 0)
+        {
+            Dijkstras.search(graph, boost, s, -1, distance, previous, new boolean[n], new IndexedMinHeap(n));
+            return new ShortestPathTree(graph, s, distance, previous);
+        }
+
+        AtomicLongArray bits = new AtomicLongArray(n);
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++)
+            bits.set(v, infinity);
+        bits.set(s, Double.doubleToRawLongBits(0));
+        relaxFrom(s, bits);
+
+        for (int v = 0; v < n; v++)
+            distance[v] = Double.longBitsToDouble(bits.get(v));
+        predecessors(s, distance, previous);
+        return new ShortestPathTree(graph, s, distance, previous);
+    }
+
+    /**
+     * Empty the buckets from the bucket of the source vertex. A distance is never lowered below the bucket
+     * that is being emptied, so the buckets from the current one to the current one + maxWeight / delta can
+     * be kept in a ring of that size. The ring has at most n + 1 buckets, so a small delta does not make it
+     * large, and the buckets after the ring are kept in a map. The numbers of the buckets that have been
+     * filled are kept in a queue, so the next bucket is found without stepping over the empty ones.
+     */
+    private void relaxFrom(int s, AtomicLongArray bits)
+    {
+        int n = graph.getNumV();
+        Buckets buckets = new Buckets((int) Math.min(n + 1L, (long) (maxWeight / delta) + 2));
+        // Stamps of the vertices that are in the current phase, reported in a phase, or in the current bucket.
+        int[] phaseMark = new int[n];
+        AtomicIntegerArray reported = new AtomicIntegerArray(n);
+        int[] bucketMark = new int[n];
+        int phase = 0;
+        int round = 0;
+
+        buckets.add(0, s);
+        while (buckets.next())
+        {
+            long current = buckets.current;
+            Bucket bucket = buckets.take(current);
+
+            // Light edges, until no vertex enters the bucket again. The heavy edges can only put a vertex into
+            // the same bucket if the distances are so large that current is rounded, then they are repeated.
+            round++;
+            while (bucket.size > 0)
+            {
+                Bucket settled = new Bucket();
+                while (bucket.size > 0)
+                {
+                    phase++;
+                    int[] items = Arrays.copyOf(bucket.items, bucket.size);
+                    bucket.size = 0;
+                    int count = 0;
+                    for (int v : items)
+                    {
+                        if (phaseMark[v] != phase && bucketOf(bits, v) == current)
+                        {
+                            phaseMark[v] = phase;
+                            items[count++] = v;
+                            if (bucketMark[v] != round)
+                            {
+                                bucketMark[v] = round;
+                                settled.add(v);
+                            }
+                        }
+                    }
+                    distribute(buckets, bits, relax(items, count, true, s, bits, reported, phase));
+                }
+
+                // Heavy edges, once for each vertex of the bucket.
+                phase++;
+                round++;
+                distribute(buckets, bits, relax(settled.items, settled.size, false, s, bits, reported, phase));
+            }
+        }
+    }
+
+    /**
+     * Relax the light or the heavy edges of the vertices in parallel.
+     *
+     * @return The vertices whose distances are lowered, each of them once, in one array for each chunk.
+     */
+    private int[][] relax(int[] vertices, int count, boolean light, int s, AtomicLongArray bits,
+                          AtomicIntegerArray reported, int phase)
+    {
+        int[][] parts = new int[(count + CHUNK - 1) / CHUNK][];
+        Parallel.forEach(pool, parts.length, c -> {
+            Bucket part = new Bucket();
+            for (int i = c * CHUNK; i < Math.min(count, (c + 1) * CHUNK); i++)
+            {
+                int u = vertices[i];
+                double distanceU = Double.longBitsToDouble(bits.get(u));
+                double boostValue = (u == s ? 0 : boost[u]);
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+                {
+                    if ((graph.weight(e) - boostValue <= delta) != light)
+                        continue;
+                    int v = graph.target(e);
+                    // The same expression as Dijkstras.search, so the sums are rounded the same way.
+                    double candidate = distanceU + graph.weight(e) - boostValue;
+                    if (lower(bits, v, candidate) && reported.getAndSet(v, phase) != phase)
+                        part.add(v);
+                }
+            }
+            parts[c] = Arrays.copyOf(part.items, part.size);
+        });
+        return parts;
+    }
+
+    /**
+     * Put the vertices to the buckets of their distances.
+     */
+    private void distribute(Buckets buckets, AtomicLongArray bits, int[][] parts)
+    {
+        for (int[] part : parts)
+        {
+            for (int v : part)
+                buckets.add(bucketOf(bits, v), v);
+        }
+    }
+
+    /**
+     * Set the distance of the vertex to the candidate if it is smaller. Non-negative doubles have the order
+     * of their bits, so the bits are compared.
+     *
+     * @return True if the distance is lowered.
+     */
+    private static boolean lower(AtomicLongArray bits, int v, double candidate)
+    {
+        long candidateBits = Double.doubleToRawLongBits(candidate);
+        long current = bits.get(v);
+        while (candidateBits < current)
+        {
+            if (bits.compareAndSet(v, current, candidateBits))
+                return true;
+            current = bits.get(v);
+        }
+        return false;
+    }
+
+    /**
+     * Return the bucket of the distance of the vertex.
+     */
+    private long bucketOf(AtomicLongArray bits, int v)
+    {
+        return (long) (Double.longBitsToDouble(bits.get(v)) / delta);
+    }
+
+    /**
+     * Give each vertex the predecessor that Dijkstra's algorithm gives it. With positive weights, Dijkstra's
+     * heap settles the vertices in the order of their distances, then their indexes, and the source first,
+     * because the vertices with the same distance are all in the heap when the first of them leaves it. A
+     * predecessor is only changed for a shorter distance, so it is the first vertex in this order whose edge
+     * gives the distance of the vertex.
+     */
+    private void predecessors(int s, double[] distance, int[] previous)
+    {
+        CsrGraph reverse = graph.reverse();
+        int n = graph.getNumV();
+        Parallel.forEach(pool, (n + CHUNK - 1) / CHUNK, c -> {
+            for (int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++)
+            {
+                previous[v] = s;
+                if (v == s || distance[v] == Double.POSITIVE_INFINITY)
+                    continue;
+                int best = -1;
+                for (int e = reverse.edgeStart(v); e < reverse.edgeEnd(v); e++)
+                {
+                    int u = reverse.target(e);
+                    if (u == v || distance[u] == Double.POSITIVE_INFINITY)
+                        continue;
+                    double boostValue = (u == s ? 0 : boost[u]);
+                    if (distance[u] + reverse.weight(e) - boostValue == distance[v]
+                        && (best == -1 || isSettledBefore(s, distance, u, best)))
+                        best = u;
+                }
+                if (best != -1)
+                    previous[v] = best;
+            }
+        });
+    }
+
+    /**
+     * Return true if Dijkstra's algorithm settles the vertex a before the vertex b.
+     */
+    private static boolean isSettledBefore(int s, double[] distance, int a, int b)
+    {
+        if (a == s || b == s)
+            return a == s;
+        return distance[a] < distance[b] || (distance[a] == distance[b] && a < b);
+    }
+
+    /**
+     * Buckets from the current one on. The buckets before current + ring.length are in the ring, and the
+     * others are in the map by their numbers until current reaches them.
+     */
+    private static final class Buckets
+    {
+        final Bucket[] ring;
+        final HashMap<Long, Bucket> far = new HashMap<Long, Bucket>();
+
+        /**
+         * Numbers of the buckets that have been filled, a number may be in the queue more than once.
+         */
+        final PriorityQueue<Long> filled = new PriorityQueue<Long>();
+        long current = -1;
+
+        Buckets(int size)
+        {
+            ring = new Bucket[size];
+            for (int i = 0; i < size; i++)
+                ring[i] = new Bucket();
+        }
+
+        void add(long bucket, int v)
+        {
+            Bucket target;
+            // The same as bucket < current + ring.length, without an overflow when the bucket of a large
+            // distance is rounded to Long.MAX_VALUE.
+            if (bucket - ring.length < current)
+            {
+                target = ring[(int) (bucket % ring.length)];
+            }
+            else
+            {
+                target = far.get(bucket);
+                if (target == null)
+                {
+                    target = new Bucket();
+                    far.put(bucket, target);
+                }
+            }
+            if (target.size == 0 && bucket != current)
+                filled.add(bucket);
+            target.add(v);
+        }
+
+        /**
+         * Move current to the next bucket that has been filled, return false if there is none.
+         */
+        boolean next()
+        {
+            while (!filled.isEmpty())
+            {
+                long bucket = filled.poll();
+                if (bucket > current)
+                {
+                    current = bucket;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Return the bucket in the ring, with the vertices that have been put to it while it was far.
+         */
+        Bucket take(long bucket)
+        {
+            Bucket near = ring[(int) (bucket % ring.length)];
+            Bucket moved = far.remove(bucket);
+            if (moved != null)
+            {
+                for (int i = 0; i < moved.size; i++)
+                    near.add(moved.items[i]);
+            }
+            return near;
+        }
+    }
+
+    /**
+     * Growable array of vertex indexes.
+     */
+    private static final class Bucket
+    {
+        int[] items = new int[16];
+        int size;
+
+        void add(int v)
+        {
+            if (size == items.length)
+                items = Arrays.copyOf(items, 2 * size);
+            items[size++] = v;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package lib;
+
+import java.util.Arrays;
+
+/**
+ * DepthFirstSearch is the depth-first search of BFSDifferenceDFS with an explicit stack.
+ *
+ * Every vertex visits its edges in increasing weight order, and edges with the same weight keep their
+ * order in the graph. The search starts from every vertex that is not visited yet, in index order, so it
+ * visits the whole graph. The total distance is the sum of the weights of the tree edges, accumulated in
+ * an int as BFSDifferenceDFS does.
+ *
+ * The state belongs to the object, so different threads can search with different objects. The stack
+ * keeps the vertex indexes only. The sorted edges of a vertex are kept in one buffer at the positions of
+ * its edges in the snapshot, so a vertex does not allocate anything when it is discovered. The arrays are
+ * created once and reused by every call of run.
+ *
+ * @author Yusuf Arslan
+ */
+public final class DepthFirstSearch
+{
+    // Data Fields
+    /**
+     * Largest degree that is sorted by insertion sort, larger ones are sorted by merge sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private final CsrGraph graph;
+
+    /**
+     * Parent of each vertex in the depth-first search tree, -1 for roots.
+     */
+    private final int[] parent;
+
+    /**
+     * Flag to indicate whether the vertex has been visited.
+     */
+    private final boolean[] visited;
+
+    private final int[] discoveryOrder;
+    private final int[] finishOrder;
+    private int discoveryIndex;
+    private int finishIndex;
+
+    /**
+     * Vertices on the path from the root to the current vertex.
+     */
+    private final int[] stack;
+
+    /**
+     * Position of the next edge of each vertex in sortedEdges.
+     */
+    private final int[] cursor;
+
+    /**
+     * Edge positions of each vertex sorted by weight, at the positions of its edges.
+     */
+    private final int[] sortedEdges;
+
+    /**
+     * Working space of the merge sort, null if no vertex needs it.
+     */
+    private int[] mergeBuffer;
+
+    /**
+     * Total weight of the tree edges, truncated after each addition as an int field does.
+     */
+    private int totalDistance;
+
+    /**
+     * Create a search on the snapshot.
+     *
+     * @param graph The snapshot of the graph.
+     */
+    public DepthFirstSearch(CsrGraph graph)
+    {
+        this.graph = graph;
+        int n = graph.getNumV();
+        parent = new int[n];
+        visited = new boolean[n];
+        discoveryOrder = new int[n];
+        finishOrder = new int[n];
+        stack = new int[n];
+        cursor = new int[n];
+        sortedEdges = new int[graph.getNumE()];
+    }
+
+    // Methods
+    /**
+     * Search the whole graph, starting a new tree from each vertex that is not visited, in index order.
+     */
+    public void run()
+    {
+        Arrays.fill(parent, -1);
+        Arrays.fill(visited, false);
+        discoveryIndex = 0;
+        finishIndex = 0;
+        totalDistance = 0;
+        for (int v = 0; v < visited.length; v++)
+        {
+            if (!visited[v])
+                search(v);
+        }
+    }
+
+    /**
+     * Return the total weight of the tree edges.
+     */
+    public int getTotalDistance()
+    {
+        return totalDistance;
+    }
+
+    /**
+     * Return the index of the parent of the vertex with the given index, -1 for a root.
+     */
+    public int getParent(int index)
+    {
+        return parent[index];
+    }
+
+    /**
+     * Return the vertex indexes in discovery order.
+     */
+    public int[] getDiscoveryOrder()
+    {
+        return Arrays.copyOf(discoveryOrder, discoveryIndex);
+    }
+
+    /**
+     * Return the vertex indexes in finish order.
+     */
+    public int[] getFinishOrder()
+    {
+        return Arrays.copyOf(finishOrder, finishIndex);
+    }
+
+    /**
+     * Search the tree of the root. A vertex stays on the stack until all of its edges are visited, then it
+     * is finished, which is the order of the recursive search.
+     */
+    private void search(int root)
+    {
+        int top = 0;
+        discover(root);
+        stack[top++] = root;
+        while (top > 0)
+        {
+            int v = stack[top - 1];
+            if (cursor[v] < graph.edgeEnd(v))
+            {
+                int e = sortedEdges[cursor[v]++];
+                int w = graph.target(e);
+                if (!visited[w])
+                {
+                    parent[w] = v;
+                    totalDistance += graph.weight(e);
+                    discover(w);
+                    stack[top++] = w;
+                }
+            }
+            else
+            {
+                finishOrder[finishIndex++] = v;
+                top--;
+            }
+        }
+    }
+
+    /**
+     * Mark the vertex as visited and sort its edges.
+     */
+    private void discover(int v)
+    {
+        visited[v] = true;
+        discoveryOrder[discoveryIndex++] = v;
+        int start = graph.edgeStart(v);
+        int end = graph.edgeEnd(v);
+        for (int e = start; e < end; e++)
+            sortedEdges[e] = e;
+        if (end - start <= INSERTION_SORT_THRESHOLD)
+            insertionSort(start, end);
+        else
+            mergeSort(start, end);
+        cursor[v] = start;
+    }
+
+    /**
+     * Sort the edge positions from start to end - 1 of sortedEdges by weight. It is stable.
+     */
+    private void insertionSort(int start, int end)
+    {
+        for (int i = start + 1; i < end; i++)
+        {
+            int e = sortedEdges[i];
+            int j = i;
+            while (j > start && graph.weight(sortedEdges[j - 1]) > graph.weight(e))
+            {
+                sortedEdges[j] = sortedEdges[j - 1];
+                j--;
+            }
+            sortedEdges[j] = e;
+        }
+    }
+
+    /**
+     * Sort the edge positions from start to end - 1 of sortedEdges by weight with a bottom-up merge sort.
+     * It is stable, because an element of the left run is taken first when the weights are equal.
+     */
+    private void mergeSort(int start, int end)
+    {
+        int length = end - start;
+        if (mergeBuffer == null || mergeBuffer.length < length)
+            mergeBuffer = new int[Math.max(length, mergeBuffer == null ? 0 : 2 * mergeBuffer.length)];
+
+        // Sort small runs first, then merge them.
+        for (int lo = start; lo < end; lo += INSERTION_SORT_THRESHOLD)
+            insertionSort(lo, Math.min(lo + INSERTION_SORT_THRESHOLD, end));
+        for (int width = INSERTION_SORT_THRESHOLD; width < length; width *= 2)
+        {
+            for (int lo = start; lo < end - width; lo += 2 * width)
+            {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, end);
+                System.arraycopy(sortedEdges, lo, mergeBuffer, 0, mid - lo);
+                int i = 0;
+                int j = mid;
+                int k = lo;
+                while (i < mid - lo && j < hi)
+                {
+                    if (graph.weight(sortedEdges[j]) < graph.weight(mergeBuffer[i]))
+                        sortedEdges[k++] = sortedEdges[j++];
+                    else
+                        sortedEdges[k++] = mergeBuffer[i++];
+                }
+                while (i < mid - lo)
+                    sortedEdges[k++] = mergeBuffer[i++];
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * DijkstraBatch runs the heap version of Dijkstra's algorithm from many start vertices at the same time.
+ *
+ * The graph is frozen and the boosting values are read once when the batch is created, so all searches
+ * share a read-only view and later changes of the graph are not seen. Every search works on primitive
+ * arrays instead of maps. The distances of a matrix are computed by fork/join tasks, and each task reuses
+ * one set of working arrays for all of its sources.
+ *
+ * Rows of the results are start vertices and columns are the vertex indexes of getGraph(), which are the
+ * indexes of exportAdjacencyMatrix.
+ *
+ * @author Yusuf Arslan
+ */
+public final class DijkstraBatch
+{
+    // Data Fields
+    private final CsrGraph graph;
+    private final double[] boost;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a batch that runs on the common pool.
+     *
+     * @param graph The graph.
+     */
+    public DijkstraBatch(MyGraph graph)
+    {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a batch that runs on the given pool.
+     *
+     * @param graph The graph.
+     * @param pool The pool that runs the searches.
+     */
+    public DijkstraBatch(MyGraph graph, ForkJoinPool pool)
+    {
+        this.graph = graph.freeze();
+        this.boost = Dijkstras.boostValues(this.graph);
+        this.pool = pool;
+    }
+
+    // Methods
+    /**
+     * Return the snapshot that the searches run on.
+     */
+    public CsrGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Find the distances from each start vertex to every vertex. The distance of a start vertex to itself
+     * is 0, and the distance to a vertex that cannot be reached is Double.POSITIVE_INFINITY.
+     *
+     * @param sourceIds The IDs of the start vertices.
+     * @return The distance matrix, the row k belongs to sourceIds[k].
+     * @throws IllegalArgumentException if there is no vertex with one of the IDs
+     */
+    public double[][] distances(int... sourceIds)
+    {
+        int[] sources = indexesOf(sourceIds);
+        double[][] rows = new double[sources.length][];
+        int grain = Math.max(1, sources.length / (4 * pool.getParallelism()));
+        pool.invoke(new SearchTask(sources, rows, 0, sources.length, grain));
+        return rows;
+    }
+
+    /**
+     * Return the shortest path tree of each start vertex as a stream. The searches are submitted to the pool
+     * of the batch when the method is called, and the stream gives each tree when its search has finished,
+     * so the first trees can be used while the others are still searched.
+     *
+     * @param sourceIds The IDs of the start vertices.
+     * @return The stream of the trees in the order of the IDs.
+     * @throws IllegalArgumentException if there is no vertex with one of the IDs
+     */
+    public Stream<ShortestPathTree> trees(int... sourceIds)
+    {
+        int[] sources = indexesOf(sourceIds);
+        List<ForkJoinTask<ShortestPathTree>> tasks =
+            new ArrayList<ForkJoinTask<ShortestPathTree>>(sources.length);
+        for (int source : sources)
+            tasks.add(pool.submit(() -> search(source)));
+        return tasks.stream().map(ForkJoinTask::join);
+    }
+
+    /**
+     * Find the shortest path tree of one start vertex.
+     *
+     * @param sourceId The ID of the start vertex.
+     * @return The tree.
+     * @throws IllegalArgumentException if there is no vertex with the ID
+     */
+    public ShortestPathTree tree(int sourceId)
+    {
+        return search(indexesOf(new int[] { sourceId })[0]);
+    }
+
+    /**
+     * Run one search from the vertex with the given index with new arrays.
+     */
+    private ShortestPathTree search(int source)
+    {
+        int n = graph.getNumV();
+        double[] distance = new double[n];
+        int[] previous = new int[n];
+        Dijkstras.search(graph, boost, source, -1, distance, previous, new boolean[n], new IndexedMinHeap(n));
+        return new ShortestPathTree(graph, source, distance, previous);
+    }
+
+    /**
+     * Convert the IDs to vertex indexes.
+     */
+    private int[] indexesOf(int[] ids)
+    {
+        int[] indexes = new int[ids.length];
+        for (int k = 0; k < ids.length; k++)
+        {
+            indexes[k] = graph.indexOf(ids[k]);
+            if (indexes[k] == -1)
+                throw new IllegalArgumentException("There is no vertex with the ID! - " + ids[k]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Task that fills the rows from lo to hi - 1. It is split in halves until it has at most grain rows.
+     */
+    private final class SearchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final double[][] rows;
+        private final int lo;
+        private final int hi;
+        private final int grain;
+
+        SearchTask(int[] sources, double[][] rows, int lo, int hi, int grain)
+        {
+            this.sources = sources;
+            this.rows = rows;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo > grain)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SearchTask(sources, rows, lo, mid, grain),
+                          new SearchTask(sources, rows, mid, hi, grain));
+                return;
+            }
+
+            // One set of working arrays for all rows of this task.
+            int n = graph.getNumV();
+            int[] previous = new int[n];
+            boolean[] settled = new boolean[n];
+            IndexedMinHeap heap = new IndexedMinHeap(n);
+            for (int k = lo; k < hi; k++)
+            {
+                rows[k] = new double[n];
+                Dijkstras.search(graph, boost, sources[k], -1, rows[k], previous, settled, heap);
+                rows[k][sources[k]] = 0;
+            }
+        }
+    }
+}
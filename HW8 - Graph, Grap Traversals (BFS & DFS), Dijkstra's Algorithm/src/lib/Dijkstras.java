@@ -1,8 +1,11 @@
 package lib;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import lib.MyGraph.Vertex;
@@ -13,6 +16,13 @@ import lib.MyGraph.Vertex;
  * 
  * This method is a modified version of the Dijkstra's algorithm that was in the Koffman and Wolfgang textbook.
  * 
+ * Two engines are available. The linear scan engine is the textbook version which searches V - S for
+ * the vertex with the smallest distance in every round, so it runs in O(V^2). The binary heap engine
+ * keeps the frontier in an indexed binary heap with decrease-key, so it runs in O((V + E) log V).
+ * 
+ * When only one target is needed, shortestPath stops as soon as the target is settled and
+ * bidirectionalShortestPath searches from both ends, so a local query does not settle the whole graph.
+ * 
  * @author Yusuf Arslan
  */
 public final class Dijkstras 
@@ -20,6 +30,27 @@ public final class Dijkstras
     // Prevent instantiate a Dijkstras class object
     private Dijkstras() {}
 
+    /**
+     * Engines that can be used to find the vertex with the smallest distance in V - S.
+     */
+    public enum Engine
+    {
+        /**
+         * Scan all vertices of V - S in every round. It is O(V^2), but it has no overhead on small graphs.
+         */
+        LINEAR_SCAN,
+
+        /**
+         * Keep the vertices of V - S in an indexed binary heap. It is O((V + E) log V).
+         */
+        BINARY_HEAP
+    }
+
+    /**
+     * The engine that is used when no engine is given.
+     */
+    public static final Engine DEFAULT_ENGINE = Engine.BINARY_HEAP;
+
     /**
      * The function takes in a graph, a starting vertex, and two maps, one for the predecessor of each
      * vertex and one for the distance from the starting vertex to each vertex. It then finds the
@@ -32,6 +63,194 @@ public final class Dijkstras
      * @param dist A map of vertices to their distances from the start vertex.
      */
     public static void dijkstras(MyGraph graph, Vertex start, Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
+    {
+        dijkstras(graph, start, pred, dist, DEFAULT_ENGINE);
+    }
+
+    /**
+     * Find the shortest path from the starting vertex to every other vertex in the graph with the given engine.
+     * Both engines give the same distances, but the linear scan breaks ties in the order of a HashSet, so
+     * the predecessor of a vertex with two shortest paths may differ.
+     * 
+     * @param graph The graph we're working with
+     * @param start The starting vertex
+     * @param pred A map of vertices to their predecessors.
+     * @param dist A map of vertices to their distances from the start vertex.
+     * @param engine The engine that selects the next vertex.
+     */
+    public static void dijkstras(MyGraph graph, Vertex start, Map<Vertex,Vertex> pred, Map<Vertex, Double> dist,
+                                 Engine engine)
+    {
+        if (engine == Engine.LINEAR_SCAN)
+            linearScan(graph, start, pred, dist);
+        else
+            binaryHeap(graph, start, pred, dist);
+    }
+
+    /**
+     * Find the shortest path from the start vertex to the target vertex. The search stops when the target
+     * is settled, so it only visits the vertices that are closer than the target. The distance and the path
+     * are the same as dist and pred of dijkstras give for the target.
+     * 
+     * @param graph The graph we're working with
+     * @param start The starting vertex
+     * @param target The target vertex
+     * @return The path and its distance.
+     * @throws IllegalArgumentException if a vertex is not in the graph
+     */
+    public static ShortestPath shortestPath(MyGraph graph, Vertex start, Vertex target)
+    {
+        CsrGraph csr = graph.freeze();
+        int s = indexOf(csr, start);
+        int t = indexOf(csr, target);
+        if (s == t)
+            return new ShortestPath(List.of(start), 0, 1);
+
+        int n = csr.getNumV();
+        double[] distance = new double[n];
+        int[] previous = new int[n];
+        int count = search(csr, null, s, t, distance, previous, new boolean[n], new IndexedMinHeap(n));
+
+        ArrayList<Vertex> path = new ArrayList<Vertex>();
+        if (distance[t] != Double.POSITIVE_INFINITY)
+        {
+            for (int v = t; v != s; v = previous[v])
+                path.add(csr.getVertex(v));
+            path.add(start);
+            Collections.reverse(path);
+        }
+        return new ShortestPath(path, distance[t], count);
+    }
+
+    /**
+     * Find the shortest path from the start vertex to the target vertex with two searches. One of them
+     * searches forward from the start vertex and the other one searches backward from the target vertex on
+     * the reversed edges, the search with the smaller frontier goes on in each step. They stop when no
+     * shorter path can be found through their frontiers.
+     * 
+     * The boosting value of a vertex is subtracted from the weights of its edges, except the edges of the
+     * start vertex, as in dijkstras. The backward search needs non-negative weights after boosting. If it
+     * finds a negative one, the query is answered by shortestPath instead.
+     * 
+     * @param graph The graph we're working with
+     * @param start The starting vertex
+     * @param target The target vertex
+     * @return The path and its distance.
+     * @throws IllegalArgumentException if a vertex is not in the graph
+     */
+    public static ShortestPath bidirectionalShortestPath(MyGraph graph, Vertex start, Vertex target)
+    {
+        CsrGraph forward = graph.freeze();
+        CsrGraph backward = forward.reverse();
+        int s = indexOf(forward, start);
+        int t = indexOf(forward, target);
+        if (s == t)
+            return new ShortestPath(List.of(start), 0, 1);
+
+        int n = forward.getNumV();
+        double[] distanceF = new double[n];
+        double[] distanceB = new double[n];
+        int[] previous = new int[n];
+        int[] next = new int[n];
+        boolean[] settledF = new boolean[n];
+        boolean[] settledB = new boolean[n];
+        IndexedMinHeap heapF = new IndexedMinHeap(n);
+        IndexedMinHeap heapB = new IndexedMinHeap(n);
+        Arrays.fill(distanceF, Double.POSITIVE_INFINITY);
+        Arrays.fill(distanceB, Double.POSITIVE_INFINITY);
+        distanceF[s] = 0;
+        distanceB[t] = 0;
+        heapF.offer(s, 0);
+        heapB.offer(t, 0);
+
+        // best is the shortest distance through a vertex that both searches have reached.
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        int count = 0;
+        while (!heapF.isEmpty() && !heapB.isEmpty()
+               && heapF.key(heapF.peek()) + heapB.key(heapB.peek()) < best)
+        {
+            count++;
+            if (heapF.size() <= heapB.size())
+            {
+                int u = heapF.poll();
+                settledF[u] = true;
+                double boostValue = (u == s ? 0 : boostOf(forward, u));
+                for (int e = forward.edgeStart(u); e < forward.edgeEnd(u); e++)
+                {
+                    int v = forward.target(e);
+                    double weight = forward.weight(e) - boostValue;
+                    if (weight < 0)
+                        return shortestPath(graph, start, target);
+                    if (!settledF[v] && distanceF[u] + weight < distanceF[v])
+                    {
+                        distanceF[v] = distanceF[u] + weight;
+                        previous[v] = u;
+                        heapF.offerOrDecrease(v, distanceF[v]);
+                    }
+                    if (distanceF[v] + distanceB[v] < best)
+                    {
+                        best = distanceF[v] + distanceB[v];
+                        meet = v;
+                    }
+                }
+            }
+            else
+            {
+                // An edge y -> x of the graph is the edge x -> y of the reversed graph, it is boosted by y.
+                int x = heapB.poll();
+                settledB[x] = true;
+                for (int e = backward.edgeStart(x); e < backward.edgeEnd(x); e++)
+                {
+                    int y = backward.target(e);
+                    double weight = backward.weight(e) - (y == s ? 0 : boostOf(forward, y));
+                    if (weight < 0)
+                        return shortestPath(graph, start, target);
+                    if (!settledB[y] && distanceB[x] + weight < distanceB[y])
+                    {
+                        distanceB[y] = distanceB[x] + weight;
+                        next[y] = x;
+                        heapB.offerOrDecrease(y, distanceB[y]);
+                    }
+                    if (distanceF[y] + distanceB[y] < best)
+                    {
+                        best = distanceF[y] + distanceB[y];
+                        meet = y;
+                    }
+                }
+            }
+        }
+
+        // Join the path of the forward search to the meeting vertex and the path of the backward search.
+        ArrayList<Vertex> path = new ArrayList<Vertex>();
+        if (meet != -1)
+        {
+            for (int v = meet; v != s; v = previous[v])
+                path.add(forward.getVertex(v));
+            path.add(start);
+            Collections.reverse(path);
+            for (int v = meet; v != t; v = next[v])
+                path.add(forward.getVertex(next[v]));
+        }
+        return new ShortestPath(path, best, count);
+    }
+
+    /**
+     * Return the index of the vertex in the snapshot.
+     */
+    static int indexOf(CsrGraph csr, Vertex vertex)
+    {
+        int index = csr.indexOf(vertex.getId());
+        if (index == -1)
+            throw new IllegalArgumentException("Vertex is not in the graph! - " + vertex.getId());
+        return index;
+    }
+
+    /**
+     * Textbook version of the algorithm. In each round, the vertex with the smallest distance is found by
+     * scanning all vertices in V - S.
+     */
+    private static void linearScan(MyGraph graph, Vertex start, Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
     {
         int numV = graph.getNumV();
 		//Initialize V - S
@@ -71,6 +290,10 @@ public final class Dijkstras
                 }
             }
 
+            // Remaining vertices are not reachable from the start vertex.
+            if (u == null)
+                break;
+
 			// Remove u from vMinusS
             vMinusS.remove(u);
 
@@ -83,10 +306,9 @@ public final class Dijkstras
                 if (vMinusS.contains(v))
                 {
                     // Get the boosting value, if the new distance is smaller then the previous 
-                    // value, change the distance.
+                    // value, change the distance. It is stored as a number, so it is not parsed here.
                     double weight = edge.getWeight();
-                    String boosting = u.getProperty("boosting");
-                    double boostValue = (boosting == null ? 0 : Double.parseDouble(boosting));
+                    double boostValue = u.getDoubleProperty("boosting", 0);
                     if (dist.get(u) + weight - boostValue < dist.get(v))
                     {
                         dist.put(v, dist.get(u) + weight - boostValue);
@@ -96,4 +318,114 @@ public final class Dijkstras
             } 
         }
     }
+
+    /**
+     * Heap version of the algorithm. It runs on the compressed snapshot of the graph, so the vertices are
+     * indexes from 0 to n - 1, and the vertices of V - S with a finite distance are kept in an indexed
+     * binary heap. The distances and predecessors are kept in arrays during the search and copied to the
+     * maps at the end, so the maps are filled exactly as the linear scan fills them.
+     */
+    private static void binaryHeap(MyGraph graph, Vertex start, Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
+    {
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        int s = csr.indexOf(start.getId());
+
+        double[] distance = new double[n];
+        int[] previous = new int[n];
+        search(csr, null, s, -1, distance, previous, new boolean[n], new IndexedMinHeap(n));
+
+        // Copy the results to the maps. The start vertex is not in V - S, so it is not updated.
+        for (int i = 0; i < n; i++)
+        {
+            if (i != s)
+            {
+                dist.put(csr.getVertex(i), distance[i]);
+                pred.put(csr.getVertex(i), csr.getVertex(previous[i]));
+            }
+        }
+    }
+
+    /**
+     * Return the boosting value of each vertex of the snapshot, 0 if the vertex does not have one.
+     */
+    static double[] boostValues(CsrGraph csr)
+    {
+        double[] boost = new double[csr.getNumV()];
+        for (int i = 0; i < boost.length; i++)
+            boost[i] = boostOf(csr, i);
+        return boost;
+    }
+
+    /**
+     * Return the boosting value of the vertex with the given index, 0 if it does not have one.
+     */
+    static double boostOf(CsrGraph csr, int index)
+    {
+        return csr.getVertex(index).getDoubleProperty("boosting", 0);
+    }
+
+    /**
+     * Heap search on primitive arrays. It fills distance and previous for every vertex index, the start
+     * vertex gets distance infinity and itself as its predecessor, as in the maps. The arrays settled and
+     * heap are working space, so they can be reused by many searches on the same thread.
+     *
+     * @param csr The snapshot of the graph.
+     * @param boost The boosting value of each vertex, or null to read them from the settled vertices.
+     * @param s The index of the start vertex.
+     * @param target The index of the vertex whose distance is needed, or -1 for all vertices. The search
+     * stops when the target is settled.
+     * @param distance The distance of each vertex, filled by the search.
+     * @param previous The index of the predecessor of each vertex, filled by the search.
+     * @param settled Working array with an element for each vertex.
+     * @param heap Working heap with an item for each vertex.
+     * @return The number of settled vertices, including the start vertex.
+     */
+    static int search(CsrGraph csr, double[] boost, int s, int target, double[] distance, int[] previous,
+                      boolean[] settled, IndexedMinHeap heap)
+    {
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, s);
+        Arrays.fill(settled, false);
+        heap.clear();
+
+        // The start vertex is in S from the beginning, its edges give the initial distances.
+        settled[s] = true;
+        int count = 1;
+        for (int e = csr.edgeStart(s); e < csr.edgeEnd(s); e++)
+        {
+            int v = csr.target(e);
+            if (!settled[v])
+            {
+                distance[v] = csr.weight(e);
+                heap.offer(v, distance[v]);
+            }
+        }
+
+        //Main loop
+        while (!heap.isEmpty())
+        {
+            int u = heap.poll();
+            settled[u] = true;
+            count++;
+            if (u == target)
+                break;
+
+            // The boosting value belongs to u, so it is the same for all of its edges.
+            double boostValue = (boost == null ? boostOf(csr, u) : boost[u]);
+
+            //Update the distances
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++)
+            {
+                int v = csr.target(e);
+                if (!settled[v] && distance[u] + csr.weight(e) - boostValue < distance[v])
+                {
+                    distance[v] = distance[u] + csr.weight(e) - boostValue;
+                    previous[v] = u;
+                    heap.offerOrDecrease(v, distance[v]);
+                }
+            }
+        }
+        return count;
+    }
 }
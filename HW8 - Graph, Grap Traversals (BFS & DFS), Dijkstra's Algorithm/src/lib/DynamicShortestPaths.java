@@ -0,0 +1,365 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * DynamicShortestPaths keeps the shortest path tree of one start vertex up to date while its graph changes.
+ *
+ * It listens to the graph and repairs only the part of the tree that an edge change affects, in the
+ * style of the algorithm of Ramalingam and Reps:
+ *   When an edge is inserted or its weight decreases, the distances that get shorter are propagated
+ *   from its destination with Dijkstra's algorithm.
+ *   When a tree edge is removed or its weight increases, the subtree under it is affected. Each affected
+ *   vertex takes its best distance through the edges that enter it from the rest of the tree, then these
+ *   distances are propagated inside the subtree.
+ * Other changes, such as removing a vertex, inserting many edges at once or changing a boosting value,
+ * make the tree stale, and it is computed again at the next query.
+ *
+ * Boosting is applied as in Dijkstras, and the weights after boosting must not be negative. The distances
+ * are the same as the distances of Dijkstras.dijkstras. If two paths have the same length, the predecessor
+ * may be different.
+ *
+ * @author Yusuf Arslan
+ */
+public final class DynamicShortestPaths implements GraphListener
+{
+    // Data Fields
+    /**
+     * Predecessor of the vertices that cannot be reached.
+     */
+    private static final int NONE = -1;
+
+    private final MyGraph graph;
+    private final int source;
+
+    /**
+     * Distance of each vertex ID, Double.POSITIVE_INFINITY if it cannot be reached.
+     */
+    private double[] distance;
+
+    /**
+     * Predecessor ID of each vertex ID, NONE for the start vertex and the vertices that cannot be reached.
+     */
+    private int[] previous;
+
+    /**
+     * Boosting value of each vertex ID.
+     */
+    private double[] boost;
+
+    /**
+     * Marks the vertices in the affected subtree during a repair.
+     */
+    private boolean[] affected;
+
+    private IndexedMinHeap heap;
+
+    /**
+     * True if the graph has a change that cannot be repaired.
+     */
+    private boolean stale;
+
+    /**
+     * Number of vertices whose distance is computed by the last update.
+     */
+    private int lastRepaired;
+
+    /**
+     * Compute the shortest path tree of the start vertex and start listening to the graph.
+     *
+     * @param graph The graph.
+     * @param start The starting vertex
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public DynamicShortestPaths(MyGraph graph, Vertex start)
+    {
+        if (graph.getVertex(start.getId()) == null)
+            throw new IllegalArgumentException("Vertex is not in the graph! - " + start.getId());
+        this.graph = graph;
+        this.source = start.getId();
+        recompute();
+        graph.addGraphListener(this);
+    }
+
+    // Methods
+    /**
+     * Stop listening to the graph.
+     */
+    public void close()
+    {
+        graph.removeGraphListener(this);
+    }
+
+    /**
+     * Return the distance of the vertex, 0 for the start vertex.
+     */
+    public double distance(Vertex vertex)
+    {
+        refresh();
+        int id = vertex.getId();
+        return id < distance.length ? distance[id] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Return the vertices of the shortest path from the start vertex to the target, empty if it cannot
+     * be reached.
+     */
+    public List<Vertex> path(Vertex target)
+    {
+        refresh();
+        ArrayList<Vertex> path = new ArrayList<Vertex>();
+        int id = target.getId();
+        if (id >= distance.length || distance[id] == Double.POSITIVE_INFINITY)
+            return path;
+        for (int v = id; v != NONE; v = previous[v])
+            path.add(graph.getVertex(v));
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Fill the maps as Dijkstras.dijkstras does. The start vertex is not put in the maps, and a vertex
+     * that cannot be reached has the start vertex as its predecessor.
+     *
+     * @param pred A map of vertices to their predecessors.
+     * @param dist A map of vertices to their distances from the start vertex.
+     */
+    public void dijkstras(Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
+    {
+        refresh();
+        Vertex start = graph.getVertex(source);
+        for (Vertex v : graph.getVertices())
+        {
+            int id = v.getId();
+            if (id != source)
+            {
+                dist.put(v, distance[id]);
+                pred.put(v, previous[id] == NONE ? start : graph.getVertex(previous[id]));
+            }
+        }
+    }
+
+    /**
+     * Return the number of vertices whose distance is computed by the last update.
+     */
+    public int getLastRepaired()
+    {
+        return lastRepaired;
+    }
+
+    @Override
+    public void edgeInserted(Edge edge)
+    {
+        if (stale)
+            return;
+        decrease(edge.getSource(), edge.getDest(), edge.getWeight());
+        if (!graph.isDirected())
+            decrease(edge.getDest(), edge.getSource(), edge.getWeight());
+        lastRepaired = propagate();
+    }
+
+    @Override
+    public void edgeRemoved(Edge edge)
+    {
+        if (!stale)
+            repair(edge);
+    }
+
+    @Override
+    public void edgeWeightChanged(Edge edge, double oldWeight)
+    {
+        if (stale)
+            return;
+        if (edge.getWeight() < oldWeight)
+            edgeInserted(edge);
+        else if (edge.getWeight() > oldWeight)
+            repair(edge);
+    }
+
+    @Override
+    public void vertexAdded(Vertex vertex)
+    {
+        if (!stale)
+            ensureCapacity(vertex.getId() + 1);
+    }
+
+    @Override
+    public void propertyChanged(Vertex vertex, String key)
+    {
+        if ("boosting".equals(key))
+            stale = true;
+    }
+
+    @Override
+    public void graphChanged()
+    {
+        stale = true;
+    }
+
+    /**
+     * Compute the tree again if the graph has a change that cannot be repaired.
+     */
+    private void refresh()
+    {
+        if (stale)
+            recompute();
+    }
+
+    /**
+     * Compute the whole tree with Dijkstra's algorithm.
+     */
+    private void recompute()
+    {
+        if (graph.getVertex(source) == null)
+            throw new IllegalStateException("Start vertex is removed from the graph! - " + source);
+        int maxId = -1;
+        for (Vertex v : graph.getVertices())
+            maxId = Math.max(maxId, v.getId());
+
+        distance = new double[0];
+        previous = new int[0];
+        boost = new double[0];
+        affected = new boolean[0];
+        ensureCapacity(maxId + 1);
+        for (Vertex v : graph.getVertices())
+        {
+            boost[v.getId()] = v.getDoubleProperty("boosting", 0);
+        }
+        stale = false;
+
+        distance[source] = 0;
+        heap.offer(source, 0);
+        lastRepaired = propagate();
+    }
+
+    /**
+     * Grow the arrays so that they have an element for each ID smaller than size.
+     */
+    private void ensureCapacity(int size)
+    {
+        if (size <= distance.length)
+            return;
+        int oldSize = distance.length;
+        int newSize = Math.max(size, oldSize * 2);
+        distance = Arrays.copyOf(distance, newSize);
+        previous = Arrays.copyOf(previous, newSize);
+        boost = Arrays.copyOf(boost, newSize);
+        affected = Arrays.copyOf(affected, newSize);
+        Arrays.fill(distance, oldSize, newSize, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, oldSize, newSize, NONE);
+        heap = new IndexedMinHeap(newSize);
+    }
+
+    /**
+     * Relax the edge from u to v, the destination is put in the heap if its distance gets shorter.
+     */
+    private void decrease(int u, int v, double weight)
+    {
+        double boostValue = (u == source ? 0 : boost[u]);
+        if (v != source && distance[u] + weight - boostValue < distance[v])
+        {
+            distance[v] = distance[u] + weight - boostValue;
+            previous[v] = u;
+            heap.offerOrDecrease(v, distance[v]);
+        }
+    }
+
+    /**
+     * Settle the vertices in the heap and relax their edges until the heap is empty.
+     *
+     * @return The number of settled vertices.
+     */
+    private int propagate()
+    {
+        EdgeStore store = graph.edgeStore();
+        int count = 0;
+        while (!heap.isEmpty())
+        {
+            int u = heap.poll();
+            count++;
+            PrimitiveIterator.OfInt edges = graph.edgesOf(u).iterator();
+            while (edges.hasNext())
+            {
+                int ref = edges.nextInt();
+                decrease(u, store.dest(ref), store.weight(ref));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Repair the tree after the edge is removed or its weight is increased. Only a tree edge changes the
+     * tree, so nothing is done for the other edges.
+     */
+    private void repair(Edge edge)
+    {
+        int u = edge.getSource();
+        int v = edge.getDest();
+        ArrayList<Integer> subtree = new ArrayList<Integer>();
+        if (previous[v] == u)
+            mark(v, subtree);
+        if (!graph.isDirected() && previous[u] == v)
+            mark(u, subtree);
+        if (subtree.isEmpty())
+        {
+            lastRepaired = 0;
+            return;
+        }
+
+        // Collect the subtree, the children of a vertex are the destinations whose predecessor it is.
+        EdgeStore store = graph.edgeStore();
+        for (int k = 0; k < subtree.size(); k++)
+        {
+            int a = subtree.get(k);
+            PrimitiveIterator.OfInt edges = graph.edgesOf(a).iterator();
+            while (edges.hasNext())
+            {
+                int child = store.dest(edges.nextInt());
+                if (previous[child] == a && !affected[child])
+                    mark(child, subtree);
+            }
+        }
+        for (int a : subtree)
+        {
+            distance[a] = Double.POSITIVE_INFINITY;
+            previous[a] = NONE;
+        }
+
+        // Each affected vertex takes its best distance through the edges that enter it from outside the subtree.
+        // An undirected edge enters a vertex as the reverse of an edge in its own list.
+        boolean directed = graph.isDirected();
+        for (int a : subtree)
+        {
+            AdjacencyList in = directed ? graph.inEdgesOf(a) : graph.edgesOf(a);
+            PrimitiveIterator.OfInt edges = in.iterator();
+            while (edges.hasNext())
+            {
+                int ref = edges.nextInt();
+                int y = directed ? store.source(ref) : store.dest(ref);
+                if (!affected[y] && distance[y] != Double.POSITIVE_INFINITY)
+                    decrease(y, a, store.weight(ref));
+            }
+        }
+
+        for (int a : subtree)
+            affected[a] = false;
+        propagate();
+        lastRepaired = subtree.size();
+    }
+
+    /**
+     * Mark the vertex as affected and add it to the subtree.
+     */
+    private void mark(int id, ArrayList<Integer> subtree)
+    {
+        affected[id] = true;
+        subtree.add(id);
+    }
+}
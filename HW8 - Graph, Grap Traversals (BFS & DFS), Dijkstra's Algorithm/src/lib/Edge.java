@@ -2,6 +2,9 @@ package lib;
 
 /**
  * Edge class for implementing graphs. Vertices are represented by the type int
+ * 
+ * MyGraph keeps its edges in an EdgeStore, and an Edge that it returns is a view of a stored edge with
+ * the values it has when the view is created. An Edge cannot be changed, so views can be shared.
  * @author Jacob / Koffman & Wolfgang
  */
 public class Edge {
@@ -9,15 +12,15 @@ public class Edge {
 	/**
 	 * Destination vertex for an edge
 	 */
-	private int dest;
+	private final int dest;
 	/**
 	 * Source vertex for an edge
 	 */
-	private int source;
+	private final int source;
 	/**
 	 * Weight of an edge
 	 */
-	private double weight;
+	private final double weight;
 	/**
 	 * Base weight for unweighted edges
 	 */
@@ -87,11 +90,12 @@ public class Edge {
 	}
 	
 	/**
-	 * Return the hash code for an edge. The hash code depends only on the source and destination
+	 * Return the hash code for an edge. The hash code depends only on the source and destination.
+	 * The source is multiplied by a prime, so that (a, b) and (b, a) do not collide.
 	 * @return The hash code for this edge
 	 */
 	public int hashCode(){
-		return Integer.hashCode(source) + Integer.hashCode(dest);
+		return 31 * Integer.hashCode(source) + Integer.hashCode(dest);
 	}
 	
 	/**
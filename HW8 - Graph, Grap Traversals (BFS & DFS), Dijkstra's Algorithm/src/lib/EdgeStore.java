@@ -0,0 +1,144 @@
+package lib;
+
+import java.util.Arrays;
+
+/**
+ * EdgeStore keeps the edges of one graph in parallel arrays of sources, destinations and weights, one slot
+ * for each edge. The slots of the removed edges are kept in a free list and given to the next edges, so
+ * the arrays stay dense and adding an edge after a removal does not allocate.
+ *
+ * An edge list refers to an edge with a reference, which is its slot shifted left by one. The lowest bit is
+ * set if the list sees the edge reversed, so an undirected edge takes one slot that both of its vertices
+ * share, and a weight change is seen from both sides. The graph keeps no Edge objects: view creates a new
+ * one from the slot each time the edge is given out through the public methods, so each of those calls
+ * allocates an Edge.
+ *
+ * @author Yusuf Arslan
+ */
+final class EdgeStore
+{
+    // Data Fields
+    /**
+     * Reference that marks a missing edge.
+     */
+    static final int NONE = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] sources = new int[DEFAULT_CAPACITY];
+    private int[] dests = new int[DEFAULT_CAPACITY];
+    private double[] weights = new double[DEFAULT_CAPACITY];
+
+    /**
+     * Number of slots that have been given, and the given slots that are free again.
+     */
+    private int slots;
+    private int[] free = new int[DEFAULT_CAPACITY];
+    private int freeCount;
+
+    // Methods
+    /**
+     * Put the edge to a free slot and return its reference from the side of its source.
+     */
+    int allocate(int source, int dest, double weight)
+    {
+        int slot;
+        if (freeCount > 0)
+        {
+            slot = free[--freeCount];
+        }
+        else
+        {
+            if (slots == sources.length)
+            {
+                int capacity = 2 * slots;
+                sources = Arrays.copyOf(sources, capacity);
+                dests = Arrays.copyOf(dests, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            slot = slots++;
+        }
+        sources[slot] = source;
+        dests[slot] = dest;
+        weights[slot] = weight;
+        return slot << 1;
+    }
+
+    /**
+     * Make the slot of the edge free. The lists must not refer to it any more.
+     */
+    void release(int ref)
+    {
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, 2 * freeCount);
+        free[freeCount++] = ref >>> 1;
+    }
+
+    /**
+     * Make room for the given number of edges in total, so that adding edges until the store has that many
+     * does not grow the arrays again. The free slots are used first, and only the rest needs new slots. The
+     * arrays are at least doubled when they grow, so many small calls do not copy them each time.
+     */
+    void ensureCapacity(int capacity)
+    {
+        int needed = slots + Math.max(0, capacity - size() - freeCount);
+        if (needed > sources.length)
+        {
+            int length = Math.max(needed, 2 * sources.length);
+            sources = Arrays.copyOf(sources, length);
+            dests = Arrays.copyOf(dests, length);
+            weights = Arrays.copyOf(weights, length);
+        }
+    }
+
+    /**
+     * Return the number of edges in the store.
+     */
+    int size()
+    {
+        return slots - freeCount;
+    }
+
+    /**
+     * Return the reference to the same edge from the side of its other vertex.
+     */
+    static int reverse(int ref)
+    {
+        return ref ^ 1;
+    }
+
+    /**
+     * Return the source of the edge as it is seen through the reference.
+     */
+    int source(int ref)
+    {
+        return ((ref & 1) == 0) ? sources[ref >>> 1] : dests[ref >>> 1];
+    }
+
+    /**
+     * Return the destination of the edge as it is seen through the reference.
+     */
+    int dest(int ref)
+    {
+        return ((ref & 1) == 0) ? dests[ref >>> 1] : sources[ref >>> 1];
+    }
+
+    double weight(int ref)
+    {
+        return weights[ref >>> 1];
+    }
+
+    void setWeight(int ref, double weight)
+    {
+        weights[ref >>> 1] = weight;
+    }
+
+    /**
+     * Return a new Edge with the values of the edge as it is seen through the reference. The Edge does not
+     * change with the store, so it can be kept and shared by readers, but every call allocates one.
+     */
+    Edge view(int ref)
+    {
+        return new Edge(source(ref), dest(ref), weights[ref >>> 1]);
+    }
+}
@@ -0,0 +1,321 @@
+package lib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class has static methods that analyze the structure of a graph: its strongly connected components,
+ * its connected components and the topological order of a directed acyclic graph.
+ *
+ * All of them run on the compressed snapshot of the graph with int arrays indexed by the vertex indexes.
+ * They use loops and explicit stacks instead of recursion, so a long path cannot overflow the stack, and
+ * they take O(V + E) time. A ConcurrentGraph is analyzed through its snapshot().
+ *
+ * @author Yusuf Arslan
+ */
+public final class GraphAnalysis
+{
+    /**
+     * Number of vertices that a worker takes at once.
+     */
+    private static final int CHUNK = 1024;
+
+    // Prevent instantiate a GraphAnalysis class object
+    private GraphAnalysis() {}
+
+    /**
+     * Find the strongly connected components with Tarjan's algorithm. A component is numbered when its
+     * search is finished, so if there is an edge from the component a to another component b, then a is
+     * larger than b. The components of an undirected graph are its connected components.
+     *
+     * @param graph The graph.
+     * @return The component of each vertex.
+     */
+    public static Components stronglyConnectedComponents(MyGraph graph)
+    {
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        // Discovery number and lowest discovery number that is reachable without leaving the subtree.
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] component = new int[n];
+        // Vertices of the search path, and vertices whose component is not known yet.
+        int[] path = new int[n];
+        int[] open = new int[n];
+        for (int v = 0; v < n; v++)
+        {
+            index[v] = -1;
+            component[v] = -1;
+        }
+
+        int counter = 0;
+        int count = 0;
+        int openSize = 0;
+        for (int root = 0; root < n; root++)
+        {
+            if (index[root] != -1)
+                continue;
+            int top = 0;
+            index[root] = low[root] = counter++;
+            cursor[root] = csr.edgeStart(root);
+            open[openSize++] = root;
+            path[top++] = root;
+            while (top > 0)
+            {
+                int v = path[top - 1];
+                if (cursor[v] < csr.edgeEnd(v))
+                {
+                    int w = csr.target(cursor[v]++);
+                    if (index[w] == -1)
+                    {
+                        index[w] = low[w] = counter++;
+                        cursor[w] = csr.edgeStart(w);
+                        open[openSize++] = w;
+                        path[top++] = w;
+                    }
+                    else if (component[w] == -1 && index[w] < low[v])
+                    {
+                        low[v] = index[w];
+                    }
+                }
+                else
+                {
+                    top--;
+                    if (top > 0 && low[v] < low[path[top - 1]])
+                        low[path[top - 1]] = low[v];
+                    if (low[v] == index[v])
+                    {
+                        // v is the first vertex of its component, which is on the top of the open vertices.
+                        int w;
+                        do
+                        {
+                            w = open[--openSize];
+                            component[w] = count;
+                        } while (w != v);
+                        count++;
+                    }
+                }
+            }
+        }
+        return new Components(csr, component, count);
+    }
+
+    /**
+     * Find the connected components with a union-find that the workers of the pool share. The edges are
+     * joined with compare-and-set, and a root is always linked under a root with a smaller index, so the
+     * result does not depend on the order of the workers. The components are numbered in the order of
+     * their first vertex. The directions of the edges of a directed graph are ignored, so it gives its
+     * weakly connected components.
+     *
+     * @param graph The graph.
+     * @param pool The pool that joins the edges, or null to join them on the calling thread.
+     * @return The component of each vertex.
+     */
+    public static Components connectedComponents(MyGraph graph, ForkJoinPool pool)
+    {
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        boolean directed = csr.isDirected();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++)
+            parent.set(v, v);
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        Parallel.forEach(pool, chunks, c -> {
+            for (int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++)
+            {
+                for (int e = csr.edgeStart(v); e < csr.edgeEnd(v); e++)
+                {
+                    // An undirected edge is stored twice, it is joined from its vertex with the smaller index.
+                    if (directed || v < csr.target(e))
+                        union(parent, v, csr.target(e));
+                }
+            }
+        });
+        int[] component = new int[n];
+        Parallel.forEach(pool, chunks, c -> {
+            for (int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++)
+                component[v] = find(parent, v);
+        });
+
+        // The root of a set is its smallest index, so it is numbered before the other vertices of the set.
+        int count = 0;
+        for (int v = 0; v < n; v++)
+            component[v] = (component[v] == v) ? count++ : component[component[v]];
+        return new Components(csr, component, count);
+    }
+
+    /**
+     * Return the vertex IDs in topological order with Kahn's algorithm: a vertex is added when all of its
+     * incoming edges come from the added vertices, in the order they become free.
+     *
+     * @param graph The directed graph.
+     * @return The IDs in an order where every edge goes from an earlier vertex to a later one.
+     * @throws IllegalArgumentException if the graph is undirected
+     * @throws IllegalStateException if the graph has a cycle
+     */
+    public static int[] topologicalOrder(MyGraph graph)
+    {
+        CsrGraph csr = directedSnapshot(graph);
+        int n = csr.getNumV();
+        int[] inDegree = new int[n];
+        int[] order = new int[n];
+        if (kahn(csr, inDegree, order) < n)
+        {
+            int[] cycle = cycle(csr, inDegree);
+            throw new IllegalStateException("Graph has a cycle! - " + csr.getId(cycle[0]));
+        }
+        for (int i = 0; i < n; i++)
+            order[i] = csr.getId(order[i]);
+        return order;
+    }
+
+    /**
+     * Return true if the directed graph has no cycle.
+     *
+     * @throws IllegalArgumentException if the graph is undirected
+     */
+    public static boolean isAcyclic(MyGraph graph)
+    {
+        CsrGraph csr = directedSnapshot(graph);
+        int n = csr.getNumV();
+        return kahn(csr, new int[n], new int[n]) == n;
+    }
+
+    /**
+     * Return the vertex IDs of a cycle of the directed graph, in the order of its edges. The last vertex has
+     * an edge to the first one.
+     *
+     * @return The cycle, or an empty array if the graph has no cycle.
+     * @throws IllegalArgumentException if the graph is undirected
+     */
+    public static int[] findCycle(MyGraph graph)
+    {
+        CsrGraph csr = directedSnapshot(graph);
+        int n = csr.getNumV();
+        int[] inDegree = new int[n];
+        if (kahn(csr, inDegree, new int[n]) == n)
+            return new int[0];
+        int[] cycle = cycle(csr, inDegree);
+        for (int i = 0; i < cycle.length; i++)
+            cycle[i] = csr.getId(cycle[i]);
+        return cycle;
+    }
+
+    /**
+     * Return the snapshot of the graph.
+     *
+     * @throws IllegalArgumentException if the graph is undirected
+     */
+    private static CsrGraph directedSnapshot(MyGraph graph)
+    {
+        if (!graph.isDirected())
+            throw new IllegalArgumentException("Topological order needs a directed graph! - undirected");
+        return graph.freeze();
+    }
+
+    /**
+     * Put the vertex indexes to the order with Kahn's algorithm. When it returns, inDegree has the number of
+     * incoming edges from the vertices that are not in the order.
+     *
+     * @return The number of vertices in the order, less than numV if there is a cycle.
+     */
+    private static int kahn(CsrGraph csr, int[] inDegree, int[] order)
+    {
+        int n = csr.getNumV();
+        for (int e = 0; e < csr.getNumE(); e++)
+            inDegree[csr.target(e)]++;
+        // The order is also the queue of the free vertices.
+        int size = 0;
+        for (int v = 0; v < n; v++)
+        {
+            if (inDegree[v] == 0)
+                order[size++] = v;
+        }
+        for (int head = 0; head < size; head++)
+        {
+            int v = order[head];
+            for (int e = csr.edgeStart(v); e < csr.edgeEnd(v); e++)
+            {
+                if (--inDegree[csr.target(e)] == 0)
+                    order[size++] = csr.target(e);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Return the indexes of a cycle among the vertices that Kahn's algorithm has not added. Each of them
+     * has an incoming edge from another one of them, so walking back on these edges repeats a vertex.
+     */
+    private static int[] cycle(CsrGraph csr, int[] inDegree)
+    {
+        CsrGraph reverse = csr.reverse();
+        int n = csr.getNumV();
+        // Step of the walk that has reached each vertex, 0 if it is not reached.
+        int[] step = new int[n];
+        int[] walk = new int[n + 1];
+        int v = 0;
+        while (inDegree[v] == 0)
+            v++;
+        int length = 0;
+        while (step[v] == 0)
+        {
+            walk[length++] = v;
+            step[v] = length;
+            int e = reverse.edgeStart(v);
+            while (inDegree[reverse.target(e)] == 0)
+                e++;
+            v = reverse.target(e);
+        }
+
+        // The walk goes against the edges, so the cycle is its end in reverse order.
+        int first = step[v] - 1;
+        int[] cycle = new int[length - first];
+        for (int i = 0; i < cycle.length; i++)
+            cycle[i] = walk[length - 1 - i];
+        return cycle;
+    }
+
+    /**
+     * Join the sets of the two vertices. The root with the larger index is linked under the other one.
+     */
+    private static void union(AtomicIntegerArray parent, int a, int b)
+    {
+        while (true)
+        {
+            a = find(parent, a);
+            b = find(parent, b);
+            if (a == b)
+                return;
+            if (a < b)
+            {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            // Fails if another worker has linked a meanwhile, then the new roots are found again.
+            if (parent.compareAndSet(a, a, b))
+                return;
+        }
+    }
+
+    /**
+     * Return the root of the set of the vertex and halve the path to it. A parent only moves to a smaller
+     * index, so the halving can be lost to another worker without harm.
+     */
+    private static int find(AtomicIntegerArray parent, int x)
+    {
+        int p = parent.get(x);
+        while (p != x)
+        {
+            int grandparent = parent.get(p);
+            if (grandparent != p)
+                parent.compareAndSet(x, p, grandparent);
+            x = grandparent;
+            p = parent.get(x);
+        }
+        return x;
+    }
+}
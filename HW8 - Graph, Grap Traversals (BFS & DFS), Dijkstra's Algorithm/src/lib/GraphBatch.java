@@ -0,0 +1,343 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * GraphBatch collects edge insertions and removals for one graph and applies them at once.
+ *
+ * The result of apply is the same as calling addEdge and removeEdge of the graph in the order the changes
+ * are added, including the order of the edges in the edge lists, but the changes are applied by going over
+ * the edge lists instead of one call per change. Each change touches the list of the vertex that owns its
+ * edge, its source or the smaller ID of an undirected edge, and the in-edge list of its destination or the
+ * list of the other vertex of an undirected edge. The touches are sorted by their vertices with a stable
+ * radix sort, so each list is found once and takes its changes in the order of the batch, and the work and
+ * the memory of apply depend on the size of the batch and not on the number of vertices.
+ *
+ * The list of the owner decides a change: an insertion adds the edge only if the list does not have it,
+ * and a removal tells whether it has removed an edge, so the changes that do not change the graph are found
+ * without a separate lookup. The other list only takes the changes that its owner has applied.
+ *   On one thread the lists of an undirected graph are changed in the order of their IDs, so the owner of
+ *   an edge is always reached before its other vertex, and one sweep over the touches applies the batch.
+ *   The lists of a directed graph, and of an undirected graph on a pool, are changed in two sweeps: first
+ *   the owners decide and apply their changes, then the other lists take the changes that have been
+ *   applied. An undirected list has already taken the changes of the edges that its vertex owns, so an
+ *   edge that it owns is moved to the end again at its place in the batch, once the second sweep has added
+ *   an edge to the list.
+ * Every insertion gets a slot in the edge store before the lists are changed, and the slots of the
+ * insertions that have not changed the graph are freed at the end. The vertices are checked once and the
+ * version of the graph is increased once, and the listeners get one graphChanged call instead of one call
+ * per edge.
+ *
+ * Each sweep works on disjoint groups of vertices, so apply can also split them between the workers of a
+ * ForkJoinPool.
+ *
+ * @author Yusuf Arslan
+ */
+public final class GraphBatch
+{
+    // Data Fields
+    private final MyGraph graph;
+    private int[] sources;
+    private int[] dests;
+    private double[] weights;
+
+    /**
+     * True for an insertion, false for a removal.
+     */
+    private boolean[] inserts;
+
+    /**
+     * Number of changes in the batch.
+     */
+    private int size;
+
+    /**
+     * Create an empty batch for the graph.
+     *
+     * @param graph The graph to be changed.
+     */
+    public GraphBatch(MyGraph graph)
+    {
+        this.graph = graph;
+        sources = new int[16];
+        dests = new int[16];
+        weights = new double[16];
+        inserts = new boolean[16];
+    }
+
+    // Methods
+    /**
+     * Add an insertion of the edge to the batch.
+     */
+    public void addEdge(int source, int dest, double weight)
+    {
+        add(source, dest, weight, true);
+    }
+
+    /**
+     * Add a removal of the edge to the batch.
+     */
+    public void removeEdge(int source, int dest)
+    {
+        add(source, dest, 0, false);
+    }
+
+    /**
+     * Return the number of changes in the batch.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remove all changes from the batch.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Apply the changes to the graph and clear the batch.
+     *
+     * @return The number of changes that changed the graph.
+     * @throws IllegalArgumentException if a change refers to a vertex that is not in the graph
+     */
+    public int apply()
+    {
+        return apply(null);
+    }
+
+    /**
+     * Apply the changes to the graph on the workers of the pool and clear the batch. The graph is the same
+     * as the graph that apply() gives.
+     *
+     * @param pool The pool that applies the changes, or null to apply them on the calling thread.
+     * @return The number of changes that changed the graph.
+     * @throws IllegalArgumentException if a change refers to a vertex that is not in the graph
+     */
+    public int apply(ForkJoinPool pool)
+    {
+        graph.checkWritable();
+        for (int i = 0; i < size; i++)
+        {
+            if (graph.getVertex(sources[i]) == null || graph.getVertex(dests[i]) == null)
+                throw new IllegalArgumentException("There is no vertex for the edge! - (" + sources[i] + "," + dests[i] + ")");
+        }
+        Sweep sweep = new Sweep(graph.isDirected());
+
+        // The inserted edges are stored before the lists are changed in parallel.
+        EdgeStore store = graph.edgeStore();
+        for (int i = 0; i < size; i++)
+        {
+            if (inserts[i])
+                sweep.refs[i] = store.allocate(sources[i], dests[i], weights[i]);
+        }
+
+        int[] chunks = partition(sweep.vertices, chunks(pool));
+        if (!sweep.directed && chunks.length == 2)
+        {
+            sweep.run(0, sweep.vertices.length, true, true);
+        }
+        else
+        {
+            Parallel.forEach(pool, chunks.length - 1, c -> sweep.run(chunks[c], chunks[c + 1], true, false));
+            Parallel.forEach(pool, chunks.length - 1, c -> sweep.run(chunks[c], chunks[c + 1], false, true));
+        }
+
+        int applied = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (sweep.effective[i])
+                applied++;
+            // The slot of a removed edge and the slot of an insertion of an existing edge are free.
+            if (sweep.effective[i] != inserts[i])
+                store.release(sweep.refs[i]);
+        }
+        size = 0;
+        if (applied > 0)
+            graph.batchApplied();
+        return applied;
+    }
+
+    /**
+     * Add a change to the end of the batch.
+     */
+    private void add(int source, int dest, double weight, boolean insert)
+    {
+        if (size == sources.length)
+        {
+            sources = Arrays.copyOf(sources, 2 * size);
+            dests = Arrays.copyOf(dests, 2 * size);
+            weights = Arrays.copyOf(weights, 2 * size);
+            inserts = Arrays.copyOf(inserts, 2 * size);
+        }
+        sources[size] = source;
+        dests[size] = dest;
+        weights[size] = weight;
+        inserts[size] = insert;
+        size++;
+    }
+
+    /**
+     * Split the sorted keys into at most the given number of ranges of about the same size, so that the
+     * equal keys are in one range. Range c is from result[c] to result[c + 1] - 1.
+     */
+    private static int[] partition(int[] keys, int chunks)
+    {
+        int count = keys.length;
+        int[] ranges = new int[chunks + 1];
+        int ranged = 1;
+        for (int c = 1; c < chunks; c++)
+        {
+            int position = Math.max((int) ((long) count * c / chunks), ranges[ranged - 1] + 1);
+            while (position < count && keys[position] == keys[position - 1])
+                position++;
+            if (position >= count)
+                break;
+            ranges[ranged++] = position;
+        }
+        ranges[ranged] = count;
+        return Arrays.copyOf(ranges, ranged + 1);
+    }
+
+    /**
+     * Return the number of ranges that the work is split into.
+     */
+    private static int chunks(ForkJoinPool pool)
+    {
+        return (pool == null) ? 1 : 4 * pool.getParallelism();
+    }
+
+    /**
+     * The touches of the lists by the changes of one apply, sorted by their vertices.
+     */
+    private final class Sweep
+    {
+        private final boolean directed;
+
+        /**
+         * The vertex of each touch, and the change of each touch shifted left by one, with the lowest bit
+         * set if the touch is not the one of the owner. The touches of a vertex are in the order of the
+         * batch.
+         */
+        private final int[] vertices;
+        private final int[] touches;
+
+        /**
+         * True if the change i has changed the graph.
+         */
+        private final boolean[] effective = new boolean[size];
+
+        /**
+         * The reference of the edge of the change i from the side of its source. For a removal it is found
+         * when the edge leaves the list of its owner.
+         */
+        private final int[] refs = new int[size];
+
+        Sweep(boolean directed)
+        {
+            this.directed = directed;
+            int count = 0;
+            for (int i = 0; i < size; i++)
+                count += (directed || sources[i] != dests[i]) ? 2 : 1;
+            vertices = new int[count];
+            touches = new int[count];
+            int position = 0;
+            for (int i = 0; i < size; i++)
+            {
+                int owner = directed ? sources[i] : Math.min(sources[i], dests[i]);
+                vertices[position] = owner;
+                touches[position++] = i << 1;
+                if (directed || sources[i] != dests[i])
+                {
+                    vertices[position] = (owner == sources[i]) ? dests[i] : sources[i];
+                    touches[position++] = i << 1 | 1;
+                }
+            }
+            RadixSort.sort(vertices, touches, count);
+        }
+
+        /**
+         * Go over the sorted touches from lo to hi - 1. If decide is true, the owners apply their changes,
+         * and if follow is true, the other lists take the changes that their owners have applied.
+         */
+        void run(int lo, int hi, boolean decide, boolean follow)
+        {
+            AdjacencyList list = null;
+            boolean added = false;
+            for (int k = lo; k < hi; k++)
+            {
+                int v = vertices[k];
+                if (k == lo || vertices[k - 1] != v)
+                {
+                    list = null;
+                    added = false;
+                }
+                int i = touches[k] >>> 1;
+                boolean owner = (touches[k] & 1) == 0;
+                if (owner ? !decide && !(added && effective[i] && inserts[i]) : !follow || !effective[i])
+                    continue;
+                if (list == null)
+                    list = (directed && !decide) ? graph.inEdgesOf(v) : graph.edgesOf(v);
+
+                if (owner && decide)
+                {
+                    effective[i] = applyToOwner(list, v, i);
+                }
+                else if (owner)
+                {
+                    moveToEnd(list, v, i);
+                }
+                else
+                {
+                    applyToOther(list, v, i);
+                    added = !directed && (added || inserts[i]);
+                }
+            }
+        }
+
+        /**
+         * Apply the change i to the list of the owner of its edge and return true if it has changed the
+         * list. An undirected edge whose owner is its destination is seen reversed from the owner.
+         */
+        private boolean applyToOwner(AdjacencyList list, int owner, int i)
+        {
+            boolean forward = (sources[i] == owner);
+            int partner = forward ? dests[i] : sources[i];
+            if (inserts[i])
+                return list.addIfAbsent(partner, forward ? refs[i] : EdgeStore.reverse(refs[i]));
+            refs[i] = list.remove(partner);
+            return refs[i] != EdgeStore.NONE;
+        }
+
+        /**
+         * Apply the change i, which has changed the list of its owner, to the other list of the vertex v:
+         * its in-edge list if the graph is directed, or its edge list if v is the other vertex of an
+         * undirected edge.
+         */
+        private void applyToOther(AdjacencyList list, int v, int i)
+        {
+            boolean reversed = !directed && v == dests[i];
+            int id = (directed || reversed) ? sources[i] : dests[i];
+            if (inserts[i])
+                list.add(id, reversed ? EdgeStore.reverse(refs[i]) : refs[i]);
+            else
+                list.remove(id);
+        }
+
+        /**
+         * Move the edge of the change i to the end of the list of its owner v, if the edge is still in the
+         * list.
+         */
+        private void moveToEnd(AdjacencyList list, int v, int i)
+        {
+            int partner = (sources[i] == v) ? dests[i] : sources[i];
+            int ref = list.remove(partner);
+            if (ref != EdgeStore.NONE)
+                list.add(partner, ref);
+        }
+    }
+}
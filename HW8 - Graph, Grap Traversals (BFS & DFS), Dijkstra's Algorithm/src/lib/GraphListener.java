@@ -0,0 +1,52 @@
+package lib;
+
+/**
+ * Interface of the objects that are notified when a MyGraph changes. The methods are called after the
+ * change is done. A change that has no specific method is reported by graphChanged, which is also the
+ * default of the other methods.
+ * 
+ * @author Yusuf Arslan
+ */
+public interface GraphListener {
+	//Interface Methods
+
+    /**
+     * Called when an edge is inserted. For an undirected graph it is called once for both directions.
+     */
+    default void edgeInserted(Edge edge) {
+        graphChanged();
+    }
+
+    /**
+     * Called when an edge is removed. For an undirected graph it is called once for both directions.
+     */
+    default void edgeRemoved(Edge edge) {
+        graphChanged();
+    }
+
+    /**
+     * Called when the weight of an edge is changed. The edge has the new weight.
+     */
+    default void edgeWeightChanged(Edge edge, double oldWeight) {
+        graphChanged();
+    }
+
+    /**
+     * Called when a vertex without edges is added.
+     */
+    default void vertexAdded(MyGraph.Vertex vertex) {
+        graphChanged();
+    }
+
+    /**
+     * Called when a property of a vertex is changed.
+     */
+    default void propertyChanged(MyGraph.Vertex vertex, String key) {
+        graphChanged();
+    }
+
+    /**
+     * Called for the other changes, such as removing a vertex or inserting many edges at once.
+     */
+    void graphChanged();
+}
@@ -0,0 +1,444 @@
+package lib;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * This class has static methods that build a MyGraph from files or from an adjacency matrix.
+ *
+ * Three text formats are supported:
+ *   Edge list: one edge per line as "source dest [weight]". Missing weights are Edge.UNWEIGHTED_EDGE.
+ *   Vertex CSV: a header "id,label,weight,key1,key2,..." and one vertex per line. An empty cell means
+ *   that the vertex does not have that property. Cells must not contain commas.
+ *   Adjacency matrix: one row per line, weights separated by white space, "inf" if there is no edge.
+ *   This is the inverse of MyGraph.exportAdjacencyMatrix.
+ * GraphWriter writes the edge list and adjacency matrix formats.
+ * Empty lines and lines starting with '#' or '%' are skipped in the edge list and matrix formats.
+ *
+ * The files are read through a large buffer and parsed without creating a String per number. Edges are
+ * collected in primitive arrays and inserted with MyGraph.addEdges, so each edge list grows once for the
+ * whole file.
+ *
+ * @author Yusuf Arslan
+ */
+public final class GraphLoader
+{
+    // Prevent instantiate a GraphLoader class object
+    private GraphLoader() {}
+
+    /**
+     * Read an edge list and create a graph with it. The IDs in the file are the IDs of the graph, so the
+     * graph has the vertices from 0 to the largest ID in the file.
+     *
+     * @param file The edge list file.
+     * @param directed True if the graph is directed.
+     * @return The new graph.
+     * @throws IOException if the file cannot be read or it is not a valid edge list
+     */
+    public static MyGraph readEdgeList(Path file, boolean directed) throws IOException
+    {
+        EdgeBuffer edges = parseEdgeList(file);
+        int maxId = -1;
+        for (int i = 0; i < edges.size; i++)
+            maxId = Math.max(maxId, Math.max(edges.sources[i], edges.dests[i]));
+
+        MyGraph graph = new MyGraph(maxId + 1, directed);
+        graph.addEdges(edges.sources, edges.dests, edges.weights, edges.size);
+        return graph;
+    }
+
+    /**
+     * Read an edge list and add its edges to the graph. All vertices of the edges must be in the graph,
+     * for example they can be read by readVertexCsv before.
+     *
+     * @param file The edge list file.
+     * @param graph The graph that the edges will be added to.
+     * @throws IOException if the file cannot be read or it is not a valid edge list
+     */
+    public static void readEdgeList(Path file, MyGraph graph) throws IOException
+    {
+        EdgeBuffer edges = parseEdgeList(file);
+        graph.addEdges(edges.sources, edges.dests, edges.weights, edges.size);
+    }
+
+    /**
+     * Read vertices and their properties from a CSV file. The vertices keep the IDs in the file.
+     *
+     * @param file The CSV file.
+     * @param directed True if the graph is directed.
+     * @return The new graph which has the vertices and no edges.
+     * @throws IOException if the file cannot be read or a line is not valid
+     */
+    public static MyGraph readVertexCsv(Path file, boolean directed) throws IOException
+    {
+        MyGraph graph = new MyGraph(directed);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            String header = reader.readLine();
+            if (header == null)
+                return graph;
+            String[] keys = header.split(",", -1);
+            if (keys.length < 3)
+                throw new IOException("Vertex CSV header should start with id,label,weight!");
+
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+                if (line.isEmpty())
+                    continue;
+                String[] cells = line.split(",", -1);
+                if (cells.length != keys.length)
+                    throw new IOException("Wrong number of cells at line " + lineNumber + "!");
+
+                int id;
+                double weight;
+                try
+                {
+                    id = Integer.parseInt(cells[0].trim());
+                    weight = cells[2].isEmpty() ? Vertex.UNWEIGHTED_VERTEX : Double.parseDouble(cells[2].trim());
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new IOException("Invalid id or weight at line " + lineNumber + "!", e);
+                }
+                if (id < 0 || graph.getVertex(id) != null)
+                    throw new IOException("Invalid or repeated id at line " + lineNumber + "! - " + id);
+
+                Vertex vertex = graph.newVertex(cells[1], weight);
+                for (int k = 3; k < keys.length; k++)
+                {
+                    if (!cells[k].isEmpty())
+                        vertex.addProperty(keys[k], cells[k]);
+                }
+                graph.addVertex(vertex, id);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Read an adjacency matrix file. The vertex of the row i gets the ID i.
+     *
+     * @param file The matrix file.
+     * @param directed True if the graph is directed. For an undirected graph, the matrix should be symmetric.
+     * @return The new graph.
+     * @throws IOException if the file cannot be read or it is not a square matrix
+     */
+    public static MyGraph readAdjacencyMatrix(Path file, boolean directed) throws IOException
+    {
+        EdgeBuffer edges = new EdgeBuffer();
+        int rows = 0;
+        int columns = -1;
+        try (Tokenizer tokenizer = new Tokenizer(Files.newInputStream(file)))
+        {
+            while (tokenizer.nextLine())
+            {
+                int column = 0;
+                while (!tokenizer.atEndOfLine())
+                {
+                    double weight = tokenizer.nextDouble();
+                    if (weight != Double.POSITIVE_INFINITY)
+                        edges.add(rows, column, weight);
+                    column++;
+                }
+                if (columns != -1 && column != columns)
+                    throw new IOException("Row " + rows + " has " + column + " values, expected " + columns + "!");
+                columns = column;
+                rows++;
+            }
+        }
+        if (columns != -1 && columns != rows)
+            throw new IOException("Adjacency matrix is not square! - " + rows + "x" + columns);
+
+        MyGraph graph = new MyGraph(rows, directed);
+        graph.addEdges(edges.sources, edges.dests, edges.weights, edges.size);
+        return graph;
+    }
+
+    /**
+     * Create a graph from an adjacency matrix, such as the one that exportAdjacencyMatrix returns.
+     * The vertex of the row i gets the ID i. Double.POSITIVE_INFINITY means that there is no edge.
+     *
+     * @param matrix The square adjacency matrix.
+     * @param directed True if the graph is directed.
+     * @return The new graph.
+     */
+    public static MyGraph fromAdjacencyMatrix(double[][] matrix, boolean directed)
+    {
+        int n = matrix.length;
+        EdgeBuffer edges = new EdgeBuffer();
+        for (int i = 0; i < n; i++)
+        {
+            if (matrix[i].length != n)
+                throw new IllegalArgumentException("Adjacency matrix is not square! - row " + i);
+            for (int j = 0; j < n; j++)
+            {
+                if (matrix[i][j] != Double.POSITIVE_INFINITY)
+                    edges.add(i, j, matrix[i][j]);
+            }
+        }
+        MyGraph graph = new MyGraph(n, directed);
+        graph.addEdges(edges.sources, edges.dests, edges.weights, edges.size);
+        return graph;
+    }
+
+    /**
+     * Parse the edges of an edge list file.
+     */
+    private static EdgeBuffer parseEdgeList(Path file) throws IOException
+    {
+        EdgeBuffer edges = new EdgeBuffer();
+        try (Tokenizer tokenizer = new Tokenizer(Files.newInputStream(file)))
+        {
+            while (tokenizer.nextLine())
+            {
+                int source = tokenizer.nextId();
+                int dest = tokenizer.nextId();
+                double weight = tokenizer.atEndOfLine() ? Edge.UNWEIGHTED_EDGE : tokenizer.nextDouble();
+                if (!tokenizer.atEndOfLine())
+                    throw new IOException("Too many values at line " + tokenizer.lineNumber() + "!");
+                edges.add(source, dest, weight);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Growable parallel arrays of edges.
+     */
+    private static final class EdgeBuffer
+    {
+        private int[] sources = new int[1024];
+        private int[] dests = new int[1024];
+        private double[] weights = new double[1024];
+        private int size;
+
+        private void add(int source, int dest, double weight)
+        {
+            if (size == sources.length)
+            {
+                sources = Arrays.copyOf(sources, size * 2);
+                dests = Arrays.copyOf(dests, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            sources[size] = source;
+            dests[size] = dest;
+            weights[size++] = weight;
+        }
+    }
+
+    /**
+     * Reads white space separated numbers line by line from a byte stream. Each token is copied to a
+     * small array and parsed from there, common decimal numbers are parsed without creating a String.
+     */
+    private static final class Tokenizer implements AutoCloseable
+    {
+        private static final int BUFFER_SIZE = 1 << 16;
+        // Any integer with this many digits is an exact double.
+        private static final int MAX_EXACT_DIGITS = 15;
+        private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private int lineNumber = 1;
+        private boolean started;
+        private byte[] token = new byte[64];
+        private int tokenLength;
+
+        private Tokenizer(InputStream in)
+        {
+            this.in = in;
+        }
+
+        /**
+         * Return the next byte without consuming it, or -1 at the end of the stream.
+         */
+        private int peek() throws IOException
+        {
+            if (position == limit)
+            {
+                limit = in.read(buffer, 0, BUFFER_SIZE);
+                position = 0;
+                if (limit <= 0)
+                {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position];
+        }
+
+        /**
+         * Move to the first token of the next line that has one, skipping empty and comment lines.
+         *
+         * @return False at the end of the stream.
+         */
+        private boolean nextLine() throws IOException
+        {
+            int c;
+            // Skip the rest of the current line.
+            if (started)
+            {
+                while ((c = peek()) != -1 && c != '\n')
+                    position++;
+            }
+            started = true;
+            while (true)
+            {
+                skipBlanks();
+                c = peek();
+                if (c == '#' || c == '%')
+                {
+                    while ((c = peek()) != -1 && c != '\n')
+                        position++;
+                }
+                if (c == -1)
+                    return false;
+                if (c != '\n')
+                    return true;
+                position++;
+                lineNumber++;
+            }
+        }
+
+        /**
+         * Return the number of the current line.
+         */
+        private int lineNumber()
+        {
+            return lineNumber;
+        }
+
+        /**
+         * Return true if there is no token left on the current line.
+         */
+        private boolean atEndOfLine() throws IOException
+        {
+            skipBlanks();
+            int c = peek();
+            return c == '\n' || c == -1;
+        }
+
+        /**
+         * Parse the next token as a vertex ID.
+         */
+        private int nextId() throws IOException
+        {
+            readToken();
+            long value = 0;
+            for (int i = 0; i < tokenLength; i++)
+            {
+                int digit = token[i] - '0';
+                if (digit < 0 || digit > 9 || (value = value * 10 + digit) > Integer.MAX_VALUE)
+                    throw invalid("vertex ID");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Parse the next token as a weight. "inf" and "Infinity" are Double.POSITIVE_INFINITY.
+         */
+        private double nextDouble() throws IOException
+        {
+            readToken();
+            int i = 0;
+            boolean negative = false;
+            if (token[0] == '-' || token[0] == '+')
+            {
+                negative = token[0] == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fraction = -1;
+            for (; i < tokenLength; i++)
+            {
+                int c = token[i];
+                if (c == '.' && fraction == -1)
+                    fraction = 0;
+                else if (c >= '0' && c <= '9' && digits < MAX_EXACT_DIGITS)
+                {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (fraction != -1)
+                        fraction++;
+                }
+                else
+                    break;
+            }
+            if (i == tokenLength && digits > 0)
+            {
+                // Both values are exact doubles, so the division is correctly rounded.
+                double value = fraction > 0 ? mantissa / POWERS_OF_TEN[fraction] : mantissa;
+                return negative ? -value : value;
+            }
+
+            String text = new String(token, 0, tokenLength, StandardCharsets.US_ASCII);
+            if (text.equalsIgnoreCase("inf") || text.equalsIgnoreCase("+inf"))
+                return Double.POSITIVE_INFINITY;
+            try
+            {
+                return Double.parseDouble(text);
+            }
+            catch (NumberFormatException e)
+            {
+                throw invalid("weight");
+            }
+        }
+
+        /**
+         * Copy the next token of the current line to the token array.
+         */
+        private void readToken() throws IOException
+        {
+            skipBlanks();
+            tokenLength = 0;
+            int c;
+            while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n')
+            {
+                if (tokenLength == token.length)
+                    token = Arrays.copyOf(token, tokenLength * 2);
+                token[tokenLength++] = (byte) c;
+                position++;
+            }
+            if (tokenLength == 0)
+                throw new IOException("Missing value at line " + lineNumber + "!");
+        }
+
+        /**
+         * Skip spaces, tabs and carriage returns.
+         */
+        private void skipBlanks() throws IOException
+        {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\r')
+                position++;
+        }
+
+        private IOException invalid(String what)
+        {
+            return new IOException("Invalid " + what + " at line " + lineNumber + "! - "
+                                   + new String(token, 0, tokenLength, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+    }
+}
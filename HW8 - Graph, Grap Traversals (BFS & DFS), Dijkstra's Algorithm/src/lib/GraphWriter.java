@@ -0,0 +1,104 @@
+package lib;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class has static methods that write a MyGraph to text files in the formats of GraphLoader.
+ *
+ * The adjacency matrix is written one row at a time from the compressed snapshot of the graph, so the
+ * dense matrix is never created. Only one row of n weights is kept in memory.
+ *
+ * @author Yusuf Arslan
+ */
+public final class GraphWriter
+{
+    /**
+     * Size of the output buffer in characters.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Prevent instantiate a GraphWriter class object
+    private GraphWriter() {}
+
+    /**
+     * Write the adjacency matrix of the graph to the file, one row per line and "inf" if there is no edge.
+     * The rows and columns are the indexes of exportAdjacencyMatrix. GraphLoader.readAdjacencyMatrix
+     * reads the file back.
+     *
+     * @param graph The graph to be written.
+     * @param file The file. An existing file is replaced.
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAdjacencyMatrix(MyGraph graph, Path file) throws IOException
+    {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+        {
+            writeAdjacencyMatrix(graph, writer);
+        }
+    }
+
+    /**
+     * Write the adjacency matrix of the graph to the writer. The writer is flushed but not closed.
+     *
+     * @param graph The graph to be written.
+     * @param writer The writer.
+     * @throws IOException if the writer fails
+     */
+    public static void writeAdjacencyMatrix(MyGraph graph, Writer writer) throws IOException
+    {
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        BufferedWriter out = new BufferedWriter(writer, BUFFER_SIZE);
+        double[] row = new double[n];
+        Arrays.fill(row, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++)
+        {
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++)
+                row[csr.target(e)] = csr.weight(e);
+
+            for (int j = 0; j < n; j++)
+            {
+                if (j > 0)
+                    out.write(' ');
+                out.write(row[j] == Double.POSITIVE_INFINITY ? "inf" : Double.toString(row[j]));
+            }
+            out.newLine();
+
+            // Only the entries of the edges are reset, so the row is not filled again.
+            for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++)
+                row[csr.target(e)] = Double.POSITIVE_INFINITY;
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the edges of the graph as an edge list, one "source dest weight" line per edge with the IDs
+     * of the vertices. An undirected edge is written once for each direction. GraphLoader.readEdgeList
+     * reads the file back.
+     *
+     * @param graph The graph to be written.
+     * @param file The file. An existing file is replaced.
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeEdgeList(MyGraph graph, Path file) throws IOException
+    {
+        CsrGraph csr = graph.freeze();
+        try (BufferedWriter out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), BUFFER_SIZE))
+        {
+            for (int i = 0; i < csr.getNumV(); i++)
+            {
+                for (int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++)
+                {
+                    out.write(csr.getId(i) + " " + csr.getId(csr.target(e)) + " " + csr.weight(e));
+                    out.newLine();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package lib;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * Interface of the heuristic of the A* search. It estimates the distance from a vertex to the target.
+ *
+ * The estimate must not be larger than the real distance after boosting, and for every edge (u, v) the
+ * estimate of u must not be larger than the weight of the edge plus the estimate of v. Then the first path
+ * that A* finds to the target is a shortest path.
+ *
+ * @author Yusuf Arslan
+ */
+@FunctionalInterface
+public interface Heuristic {
+	//Interface Methods
+
+    /**
+     * Estimate the distance from the vertex to the target.
+     * @return The estimate, it is never negative
+     */
+    double estimate(Vertex vertex, Vertex target);
+
+    /**
+     * Heuristic that always estimates 0. A* with it settles the same vertices as Dijkstra's algorithm.
+     */
+    Heuristic ZERO = (vertex, target) -> 0;
+
+    /**
+     * Create a heuristic that returns the straight line distance between the points of the vertices. The
+     * coordinates are read from the given properties, and every vertex that the search reaches must have
+     * them: estimating some vertices as 0 and the others by their distance is not consistent, and A* could
+     * return a path that is not the shortest.
+     * @param xKey The property that keeps the x coordinate.
+     * @param yKey The property that keeps the y coordinate.
+     * @return The euclidean heuristic
+     * @throws IllegalArgumentException from estimate, if a vertex does not have the coordinates
+     */
+    static Heuristic euclidean(String xKey, String yKey) {
+        return (vertex, target) -> {
+            requireCoordinates(vertex, xKey, yKey);
+            requireCoordinates(target, xKey, yKey);
+            double dx = vertex.getDoubleProperty(xKey, 0) - target.getDoubleProperty(xKey, 0);
+            double dy = vertex.getDoubleProperty(yKey, 0) - target.getDoubleProperty(yKey, 0);
+            return Math.sqrt(dx * dx + dy * dy);
+        };
+    }
+
+    /**
+     * Create a heuristic that returns the great circle distance between the points of the vertices. The
+     * latitude and longitude are read in degrees from the given properties, and every vertex that the search
+     * reaches must have them, as in euclidean.
+     * @param latKey The property that keeps the latitude.
+     * @param lonKey The property that keeps the longitude.
+     * @param radius The radius of the sphere in the unit of the edge weights, for example 6371 for
+     * kilometers on the Earth.
+     * @return The haversine heuristic
+     * @throws IllegalArgumentException from estimate, if a vertex does not have the coordinates
+     */
+    static Heuristic haversine(String latKey, String lonKey, double radius) {
+        return (vertex, target) -> {
+            requireCoordinates(vertex, latKey, lonKey);
+            requireCoordinates(target, latKey, lonKey);
+            double phi1 = Math.toRadians(vertex.getDoubleProperty(latKey, 0));
+            double phi2 = Math.toRadians(target.getDoubleProperty(latKey, 0));
+            double dPhi = phi2 - phi1;
+            double dLambda = Math.toRadians(target.getDoubleProperty(lonKey, 0) - vertex.getDoubleProperty(lonKey, 0));
+            double h = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+                       + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+            return 2 * radius * Math.asin(Math.min(1, Math.sqrt(h)));
+        };
+    }
+
+    /**
+     * Throw an exception if the vertex does not have both of the coordinates.
+     */
+    private static void requireCoordinates(Vertex vertex, String firstKey, String secondKey) {
+        if (!vertex.hasProperty(firstKey) || !vertex.hasProperty(secondKey))
+            throw new IllegalArgumentException("Vertex does not have the coordinates! - " + vertex.getId());
+    }
+}
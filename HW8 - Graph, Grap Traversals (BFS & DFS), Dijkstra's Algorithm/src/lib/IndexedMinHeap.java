@@ -0,0 +1,215 @@
+package lib;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IndexedMinHeap is a binary min heap over the integers 0 to capacity - 1 where every item
+ * carries a double key. The position of each item in the heap is stored in an array, so
+ * the key of an item that is already in the heap can be decreased in O(log n).
+ *
+ * Items with equal keys leave the heap in increasing item order, so a search that uses the heap
+ * visits the vertices in the same order on every run.
+ *
+ * It is used as the priority queue of the shortest path engines.
+ *
+ * @author Yusuf Arslan
+ */
+final class IndexedMinHeap
+{
+    // Data Fields
+    /**
+     * The items of the heap in heap order.
+     */
+    private final int[] heap;
+
+    /**
+     * Position of each item in the heap array, -1 if the item is not in the heap.
+     */
+    private final int[] position;
+
+    /**
+     * Key of each item.
+     */
+    private final double[] keys;
+
+    /**
+     * Number of items in the heap.
+     */
+    private int size;
+
+    /**
+     * Construct an empty heap that can hold the items from 0 to capacity - 1.
+     *
+     * @param capacity The number of different items.
+     */
+    IndexedMinHeap(int capacity)
+    {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    // Methods
+    /**
+     * Return the number of items in the heap.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Return true if there is no item in the heap.
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Return true if the item is in the heap.
+     */
+    boolean contains(int item)
+    {
+        return position[item] != -1;
+    }
+
+    /**
+     * Return the key of the item.
+     */
+    double key(int item)
+    {
+        return keys[item];
+    }
+
+    /**
+     * Insert the item with the given key.
+     *
+     * @param item The item to be inserted, it must not be in the heap.
+     * @param key The key of the item.
+     */
+    void offer(int item, double key)
+    {
+        keys[item] = key;
+        heap[size] = item;
+        position[item] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Decrease the key of the item which is in the heap.
+     *
+     * @param item The item whose key will be decreased.
+     * @param key The new key, it must not be greater than the current key.
+     */
+    void decreaseKey(int item, double key)
+    {
+        keys[item] = key;
+        siftUp(position[item]);
+    }
+
+    /**
+     * Insert the item if it is not in the heap, otherwise decrease its key.
+     */
+    void offerOrDecrease(int item, double key)
+    {
+        if (position[item] == -1)
+            offer(item, key);
+        else
+            decreaseKey(item, key);
+    }
+
+    /**
+     * Return the item with the smallest key without removing it.
+     */
+    int peek()
+    {
+        if (size == 0)
+            throw new NoSuchElementException("Heap is empty!");
+        return heap[0];
+    }
+
+    /**
+     * Remove and return the item with the smallest key.
+     */
+    int poll()
+    {
+        if (size == 0)
+            throw new NoSuchElementException("Heap is empty!");
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Remove all items, so that the heap can be reused by another search.
+     */
+    void clear()
+    {
+        for (int i = 0; i < size; i++)
+            position[heap[i]] = -1;
+        size = 0;
+    }
+
+    /**
+     * Move the item at the given index up until its parent is not greater than it.
+     */
+    private void siftUp(int index)
+    {
+        int item = heap[index];
+        double key = keys[item];
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (!less(item, key, heap[parent]))
+                break;
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = item;
+        position[item] = index;
+    }
+
+    /**
+     * Move the item at the given index down until its children are not smaller than it.
+     */
+    private void siftDown(int index)
+    {
+        int item = heap[index];
+        double key = keys[item];
+        int half = size >>> 1;
+        while (index < half)
+        {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && less(heap[right], keys[heap[right]], heap[child]))
+                child = right;
+            if (!less(heap[child], keys[heap[child]], item))
+                break;
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = item;
+        position[item] = index;
+    }
+
+    /**
+     * Return true if the item with the given key comes before the other item. Equal keys are
+     * ordered by the items.
+     */
+    private boolean less(int item, double key, int other)
+    {
+        return key < keys[other] || (key == keys[other] && item < other);
+    }
+}
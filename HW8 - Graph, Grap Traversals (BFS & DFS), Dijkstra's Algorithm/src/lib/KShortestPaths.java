@@ -0,0 +1,538 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * KShortestPaths finds the k shortest loopless paths between two vertices with Yen's algorithm, so that a
+ * route can be given with its alternatives.
+ *
+ * The first path is the shortest path. A next path deviates from a found path at one of its vertices, the
+ * spur vertex: it follows the found path up to the spur vertex, and then takes the shortest path to the
+ * target that does not visit the vertices before the spur vertex, and does not leave the spur vertex through
+ * an edge that a found path with the same beginning takes. The shortest of these candidates is the next
+ * path. As Lawler suggests, a path is only deviated at the vertices from the one where it has deviated from
+ * its parent, so a candidate is never found twice.
+ *
+ * All spur searches of a query share one shortest path tree into the target, which a reverse heap search
+ * grows only as far as the spur searches need it. The distance of a vertex to the target in the tree is a
+ * lower bound of its distance when vertices and edges are removed, so a spur search is an A* search with
+ * this heuristic, and it is not run at all when the tree path of the spur vertex avoids the removed
+ * vertices and edges. A vertex that the tree has not reached yet is estimated with the distance of the next
+ * vertex that the tree settles, and the tree is grown when such a vertex has the smallest key, so a spur
+ * search does not grow the tree to the far neighbors of its vertices.
+ *
+ * The graph is frozen and the boosting values are read once when the engine is created, as in
+ * DijkstraBatch. The boosting value of a vertex is subtracted from the weights of its edges, except the
+ * edges of the start vertex, as in Dijkstras, and the weights must be non-negative after boosting. The
+ * number of vertices that the searches of a query expand can be bounded, and a query that reaches the bound
+ * returns the paths that it has found.
+ *
+ * @author Yusuf Arslan
+ */
+public final class KShortestPaths
+{
+    // Data Fields
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final double[] boost;
+    private final long maxExpanded;
+
+    /**
+     * True for the vertices that have an edge whose weight is negative after boosting, or before it for the
+     * edges of a start vertex.
+     */
+    private final boolean[] negativeBoosted;
+    private final boolean[] negativeRaw;
+    private final int negativeCount;
+
+    /**
+     * Create an engine whose queries are not bounded.
+     *
+     * @param graph The graph.
+     */
+    public KShortestPaths(MyGraph graph)
+    {
+        this(graph, Long.MAX_VALUE);
+    }
+
+    /**
+     * Create an engine whose queries stop when their searches have expanded the given number of vertices.
+     *
+     * @param graph The graph.
+     * @param maxExpanded The bound on the expanded vertices of a query.
+     * @throws IllegalArgumentException if the bound is not positive
+     */
+    public KShortestPaths(MyGraph graph, long maxExpanded)
+    {
+        if (maxExpanded < 1)
+            throw new IllegalArgumentException("Expansion bound should be positive! - " + maxExpanded);
+        this.graph = graph.freeze();
+        this.reverse = this.graph.reverse();
+        this.boost = Dijkstras.boostValues(this.graph);
+        this.maxExpanded = maxExpanded;
+
+        int n = this.graph.getNumV();
+        negativeBoosted = new boolean[n];
+        negativeRaw = new boolean[n];
+        int count = 0;
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = this.graph.edgeStart(u); e < this.graph.edgeEnd(u); e++)
+            {
+                negativeRaw[u] |= this.graph.weight(e) < 0;
+                negativeBoosted[u] |= this.graph.weight(e) - boost[u] < 0;
+            }
+            if (negativeBoosted[u])
+                count++;
+        }
+        negativeCount = count;
+    }
+
+    // Methods
+    /**
+     * Return the snapshot that the searches run on.
+     */
+    public CsrGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Return the bound on the expanded vertices of a query.
+     */
+    public long getMaxExpanded()
+    {
+        return maxExpanded;
+    }
+
+    /**
+     * Find the k shortest loopless paths from the start vertex to the target vertex.
+     *
+     * @param start The starting vertex
+     * @param target The target vertex
+     * @param k The number of paths.
+     * @return The paths in order of distance.
+     * @throws IllegalArgumentException if a vertex is not in the graph, if k is not positive, or if a weight
+     *         is negative after boosting
+     */
+    public AlternativePaths paths(Vertex start, Vertex target, int k)
+    {
+        return query(Dijkstras.indexOf(graph, start), Dijkstras.indexOf(graph, target), k);
+    }
+
+    /**
+     * Find the k shortest loopless paths between the vertices with the given IDs.
+     *
+     * @param startId The ID of the starting vertex.
+     * @param targetId The ID of the target vertex.
+     * @param k The number of paths.
+     * @return The paths in order of distance.
+     * @throws IllegalArgumentException if there is no vertex with one of the IDs, if k is not positive, or if
+     *         a weight is negative after boosting
+     */
+    public AlternativePaths paths(int startId, int targetId, int k)
+    {
+        return query(index(startId), index(targetId), k);
+    }
+
+    private int index(int id)
+    {
+        int index = graph.indexOf(id);
+        if (index == -1)
+            throw new IllegalArgumentException("There is no vertex with the ID! - " + id);
+        return index;
+    }
+
+    private AlternativePaths query(int s, int t, int k)
+    {
+        if (k < 1)
+            throw new IllegalArgumentException("Number of paths should be positive! - " + k);
+        if (negativeRaw[s] || negativeCount > (negativeBoosted[s] ? 1 : 0))
+            throw new IllegalArgumentException("K shortest paths need non-negative weights! - " + negative(s));
+
+        Query query = new Query(s, t);
+        List<Route> routes = query.run(k);
+        ArrayList<ShortestPath> paths = new ArrayList<ShortestPath>(routes.size());
+        for (Route route : routes)
+        {
+            ArrayList<Vertex> path = new ArrayList<Vertex>(route.vertices.length);
+            for (int v : route.vertices)
+                path.add(graph.getVertex(v));
+            paths.add(new ShortestPath(path, route.distance, route.settled));
+        }
+        return new AlternativePaths(paths, query.expanded, !query.stopped);
+    }
+
+    /**
+     * Return the ID of a vertex that has a negative weight for the given start vertex.
+     */
+    private int negative(int s)
+    {
+        for (int u = 0; u < negativeBoosted.length; u++)
+        {
+            if (u == s ? negativeRaw[u] : negativeBoosted[u])
+                return graph.getId(u);
+        }
+        return -1;
+    }
+
+    /**
+     * Return the weight of the edge from the tail after boosting.
+     */
+    private double cost(int s, int tail, double weight)
+    {
+        return weight - (tail == s ? 0 : boost[tail]);
+    }
+
+    /**
+     * A found path or a candidate, with the index of its spur vertex and the number of vertices that its
+     * search expanded. Routes are ordered by distance, and then by their vertices.
+     */
+    private static final class Route implements Comparable<Route>
+    {
+        final int[] vertices;
+        final double distance;
+        final int deviation;
+        final int settled;
+
+        Route(int[] vertices, double distance, int deviation, int settled)
+        {
+            this.vertices = vertices;
+            this.distance = distance;
+            this.deviation = deviation;
+            this.settled = settled;
+        }
+
+        @Override
+        public int compareTo(Route other)
+        {
+            int result = Double.compare(distance, other.distance);
+            return (result != 0) ? result : Arrays.compare(vertices, other.vertices);
+        }
+    }
+
+    /**
+     * State of one query. The arrays of the spur searches are marked with the number of the search instead
+     * of being cleared, so a search only costs the vertices that it reaches.
+     */
+    private final class Query
+    {
+        private final int s;
+        private final int t;
+
+        /**
+         * Shortest path tree into the target: the distance of a vertex to the target, the next vertex on its
+         * path, and the vertices whose distances are final.
+         */
+        private final double[] toTarget;
+        private final int[] next;
+        private final boolean[] inTree;
+        private final IndexedMinHeap treeHeap;
+
+        private final double[] distance;
+        private final int[] previous;
+        private final int[] reached;
+        private final int[] settled;
+        private final int[] blocked;
+        private final IndexedMinHeap heap;
+
+        /**
+         * Number of the current spur search, and of the found path that is deviated. The vertices before the
+         * spur vertex are blocked with the number of the path.
+         */
+        private int search;
+        private int round;
+
+        private long expanded;
+        private boolean stopped;
+
+        Query(int s, int t)
+        {
+            this.s = s;
+            this.t = t;
+            int n = graph.getNumV();
+            toTarget = new double[n];
+            next = new int[n];
+            inTree = new boolean[n];
+            treeHeap = new IndexedMinHeap(n);
+            distance = new double[n];
+            previous = new int[n];
+            reached = new int[n];
+            settled = new int[n];
+            blocked = new int[n];
+            heap = new IndexedMinHeap(n);
+            Arrays.fill(toTarget, Double.POSITIVE_INFINITY);
+            toTarget[t] = 0;
+            next[t] = t;
+            treeHeap.offer(t, 0);
+        }
+
+        /**
+         * Find up to k paths, the shortest one first.
+         */
+        List<Route> run(int k)
+        {
+            ArrayList<Route> found = new ArrayList<Route>();
+            if (s == t)
+            {
+                found.add(new Route(new int[] { s }, 0, 0, 0));
+                return found;
+            }
+
+            PriorityQueue<Route> candidates = new PriorityQueue<Route>();
+            while (!inTree[s] && grow())
+                ;
+            if (inTree[s])
+            {
+                int[] first = treePath(s);
+                candidates.add(new Route(first, distance(first), 0, (int) expanded));
+            }
+            while (!stopped && !candidates.isEmpty())
+            {
+                Route route = candidates.poll();
+                found.add(route);
+                if (found.size() == k)
+                    break;
+                deviate(route, found, candidates);
+            }
+            return found;
+        }
+
+        /**
+         * Add the candidates that deviate from the route at its vertices from its own spur vertex on.
+         */
+        private void deviate(Route route, List<Route> found, PriorityQueue<Route> candidates)
+        {
+            int[] vertices = route.vertices;
+            ArrayList<int[]> same = new ArrayList<int[]>(found.size());
+            for (Route other : found)
+                same.add(other.vertices);
+            int[] banned = new int[found.size()];
+            round++;
+
+            for (int i = 0; i < vertices.length - 1; i++)
+            {
+                // Keep the found paths that begin with the same vertices up to the spur vertex.
+                int u = vertices[i];
+                int count = 0;
+                for (int j = 0; j < same.size(); j++)
+                {
+                    int[] other = same.get(j);
+                    if (other.length > i + 1 && other[i] == u)
+                    {
+                        same.set(count, other);
+                        banned[count++] = other[i + 1];
+                    }
+                }
+                same.subList(count, same.size()).clear();
+
+                if (i >= route.deviation)
+                {
+                    long before = expanded;
+                    int[] spur = spur(u, banned, count);
+                    if (stopped)
+                        return;
+                    if (spur != null)
+                    {
+                        int[] path = Arrays.copyOf(vertices, i + spur.length);
+                        System.arraycopy(spur, 0, path, i, spur.length);
+                        candidates.add(new Route(path, distance(path), i, (int) (expanded - before)));
+                    }
+                }
+                blocked[u] = round;
+            }
+        }
+
+        /**
+         * Return the shortest path from the spur vertex to the target that does not visit the blocked
+         * vertices and does not go to a banned vertex from the spur vertex, or null if there is none.
+         */
+        private int[] spur(int u, int[] banned, int bannedCount)
+        {
+            while (!inTree[u] && grow())
+                ;
+            if (!inTree[u])
+                return null;
+            if (!contains(banned, bannedCount, next[u]) && !isBlocked(u))
+                return treePath(u);
+
+            search++;
+            heap.clear();
+            distance[u] = 0;
+            reached[u] = search;
+            heap.offer(u, toTarget[u]);
+            while (!heap.isEmpty())
+            {
+                // The key of a vertex that is not in the tree has a lower bound of its estimate, so the tree is
+                // grown until the estimate is known or the vertex is no longer the smallest.
+                int x = heap.poll();
+                double bound = heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.key(heap.peek());
+                while (!inTree[x] && distance[x] + estimate(x) <= bound && grow())
+                    ;
+                if (stopped)
+                    return null;
+                double key = distance[x] + estimate(x);
+                if (key == Double.POSITIVE_INFINITY)
+                    continue;
+                if (!inTree[x] || key > bound)
+                {
+                    heap.offer(x, key);
+                    continue;
+                }
+
+                if (expanded == maxExpanded)
+                {
+                    stopped = true;
+                    return null;
+                }
+                settled[x] = search;
+                expanded++;
+                if (x == t)
+                    return searchPath(u);
+
+                for (int e = graph.edgeStart(x); e < graph.edgeEnd(x); e++)
+                {
+                    int v = graph.target(e);
+                    if (blocked[v] == round || settled[v] == search)
+                        continue;
+                    if (x == u && contains(banned, bannedCount, v))
+                        continue;
+                    double d = distance[x] + cost(s, x, graph.weight(e));
+                    if (reached[v] == search && d >= distance[v])
+                        continue;
+                    key = d + estimate(v);
+                    if (key == Double.POSITIVE_INFINITY)
+                        continue;
+                    distance[v] = d;
+                    previous[v] = x;
+                    reached[v] = search;
+                    // The estimate may have grown since the vertex was put in the heap, so its old key is kept
+                    // if it is smaller.
+                    heap.offerOrDecrease(v, heap.contains(v) ? Math.min(key, heap.key(v)) : key);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Return the distance of the vertex to the target if it is in the tree. Otherwise return the distance
+         * of the next vertex that the tree settles, which is a lower bound of it, or Double.POSITIVE_INFINITY
+         * if the tree is complete and the vertex cannot reach the target.
+         */
+        private double estimate(int v)
+        {
+            if (inTree[v])
+                return toTarget[v];
+            return treeHeap.isEmpty() ? Double.POSITIVE_INFINITY : treeHeap.key(treeHeap.peek());
+        }
+
+        /**
+         * Settle the next vertex of the tree into the target. Return false if the tree is complete or the
+         * bound is reached.
+         */
+        private boolean grow()
+        {
+            if (treeHeap.isEmpty())
+                return false;
+            if (expanded == maxExpanded)
+            {
+                stopped = true;
+                return false;
+            }
+            int x = treeHeap.poll();
+            inTree[x] = true;
+            expanded++;
+            for (int e = reverse.edgeStart(x); e < reverse.edgeEnd(x); e++)
+            {
+                int y = reverse.target(e);
+                double d = toTarget[x] + cost(s, y, reverse.weight(e));
+                if (!inTree[y] && d < toTarget[y])
+                {
+                    toTarget[y] = d;
+                    next[y] = x;
+                    treeHeap.offerOrDecrease(y, d);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Return true if the path of the tree from the vertex to the target visits a blocked vertex.
+         */
+        private boolean isBlocked(int u)
+        {
+            for (int v = next[u]; v != t; v = next[v])
+            {
+                if (blocked[v] == round)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Return the path of the tree from the vertex to the target.
+         */
+        private int[] treePath(int u)
+        {
+            int length = 1;
+            for (int v = u; v != t; v = next[v])
+                length++;
+            int[] path = new int[length];
+            path[0] = u;
+            for (int i = 1; i < length; i++)
+                path[i] = next[path[i - 1]];
+            return path;
+        }
+
+        /**
+         * Return the path that the last spur search has found from the spur vertex to the target.
+         */
+        private int[] searchPath(int u)
+        {
+            int length = 1;
+            for (int v = t; v != u; v = previous[v])
+                length++;
+            int[] path = new int[length];
+            path[length - 1] = t;
+            for (int i = length - 1; i > 0; i--)
+                path[i - 1] = previous[path[i]];
+            return path;
+        }
+
+        /**
+         * Return the distance of the path, added up from the start vertex as Dijkstras adds it up.
+         */
+        private double distance(int[] path)
+        {
+            double sum = 0;
+            for (int i = 0; i + 1 < path.length; i++)
+            {
+                int u = path[i];
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+                {
+                    if (graph.target(e) == path[i + 1])
+                    {
+                        sum = sum + graph.weight(e) - (u == s ? 0 : boost[u]);
+                        break;
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            if (values[i] == value)
+                return true;
+        }
+        return false;
+    }
+}
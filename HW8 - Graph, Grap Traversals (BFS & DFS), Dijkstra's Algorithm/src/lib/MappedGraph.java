@@ -0,0 +1,243 @@
+package lib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * MappedGraph is a read-only graph that is read directly from a memory mapped file of BinaryGraphFormat.
+ *
+ * It has the same indexes and the same methods to walk the edges as CsrGraph, but the arrays are views of
+ * the mapped file, so nothing is copied when the graph is opened. Strings are decoded when they are asked for.
+ *
+ * @author Yusuf Arslan
+ */
+public final class MappedGraph
+{
+    // Data Fields
+    private final boolean directed;
+    private final int numV;
+    private final int numE;
+    private final DoubleBuffer vertexWeights;
+    private final DoubleBuffer edgeWeights;
+    private final IntBuffer ids;
+    private final IntBuffer labels;
+    private final IntBuffer propertyOffsets;
+    private final IntBuffer edgeOffsets;
+    private final IntBuffer targets;
+    private final IntBuffer propertyKeys;
+    private final IntBuffer propertyValues;
+    private final IntBuffer idTable;
+    private final IntBuffer stringOffsets;
+    private final ByteBuffer strings;
+
+    /**
+     * Create the views of the sections of the file.
+     *
+     * @param buffer The mapped file.
+     * @throws IOException if the header is not valid
+     */
+    MappedGraph(ByteBuffer buffer) throws IOException
+    {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != BinaryGraphFormat.MAGIC || buffer.getInt(4) != BinaryGraphFormat.VERSION)
+            throw new IOException("Not a graph file or unsupported version!");
+        directed = buffer.getInt(8) == 1;
+        numV = buffer.getInt(12);
+        numE = buffer.getInt(16);
+        int numProperties = buffer.getInt(20);
+        int numStrings = buffer.getInt(24);
+        int stringBytes = buffer.getInt(28);
+        int idTableLength = buffer.getInt(32);
+
+        int position = BinaryGraphFormat.HEADER_SIZE;
+        vertexWeights = slice(buffer, position, 8 * numV).asDoubleBuffer();
+        position += 8 * numV;
+        edgeWeights = slice(buffer, position, 8 * numE).asDoubleBuffer();
+        position += 8 * numE;
+        ids = slice(buffer, position, 4 * numV).asIntBuffer();
+        position += 4 * numV;
+        labels = slice(buffer, position, 4 * numV).asIntBuffer();
+        position += 4 * numV;
+        propertyOffsets = slice(buffer, position, 4 * (numV + 1)).asIntBuffer();
+        position += 4 * (numV + 1);
+        edgeOffsets = slice(buffer, position, 4 * (numV + 1)).asIntBuffer();
+        position += 4 * (numV + 1);
+        targets = slice(buffer, position, 4 * numE).asIntBuffer();
+        position += 4 * numE;
+        propertyKeys = slice(buffer, position, 4 * numProperties).asIntBuffer();
+        position += 4 * numProperties;
+        propertyValues = slice(buffer, position, 4 * numProperties).asIntBuffer();
+        position += 4 * numProperties;
+        idTable = slice(buffer, position, 4 * idTableLength).asIntBuffer();
+        position += 4 * idTableLength;
+        stringOffsets = slice(buffer, position, 4 * (numStrings + 1)).asIntBuffer();
+        position += 4 * (numStrings + 1);
+        strings = slice(buffer, position, stringBytes);
+    }
+
+    /**
+     * Return a little endian view of length bytes from the given position.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) throws IOException
+    {
+        if (position < 0 || length < 0 || position + length > buffer.capacity())
+            throw new IOException("Graph file is truncated!");
+        return buffer.duplicate().position(position).limit(position + length).slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Methods
+    /**
+     * Return the number of vertices.
+     */
+    public int getNumV()
+    {
+        return numV;
+    }
+
+    /**
+     * Return the number of edges. An undirected edge is counted once for each direction.
+     */
+    public int getNumE()
+    {
+        return numE;
+    }
+
+    /**
+     * Return true if the graph is directed.
+     */
+    public boolean isDirected()
+    {
+        return directed;
+    }
+
+    /**
+     * Return the ID of the vertex with the given index.
+     */
+    public int getId(int index)
+    {
+        return ids.get(index);
+    }
+
+    /**
+     * Return the index of the vertex with the given ID, or -1 if there is no such vertex.
+     */
+    public int indexOf(int id)
+    {
+        return (id < 0 || id >= idTable.capacity()) ? -1 : idTable.get(id);
+    }
+
+    /**
+     * Return the weight of the vertex with the given index.
+     */
+    public double getVertexWeight(int index)
+    {
+        return vertexWeights.get(index);
+    }
+
+    /**
+     * Return the label of the vertex with the given index.
+     */
+    public String getLabel(int index)
+    {
+        return string(labels.get(index));
+    }
+
+    /**
+     * Return the value of the property of the vertex with the given index, or null if it does not have it.
+     */
+    public String getProperty(int index, String key)
+    {
+        for (int p = propertyOffsets.get(index); p < propertyOffsets.get(index + 1); p++)
+        {
+            if (key.equals(string(propertyKeys.get(p))))
+                return string(propertyValues.get(p));
+        }
+        return null;
+    }
+
+    /**
+     * Return the position of the first edge of the vertex with the given index.
+     */
+    public int edgeStart(int index)
+    {
+        return edgeOffsets.get(index);
+    }
+
+    /**
+     * Return the position after the last edge of the vertex with the given index.
+     */
+    public int edgeEnd(int index)
+    {
+        return edgeOffsets.get(index + 1);
+    }
+
+    /**
+     * Return the index of the destination vertex of the edge at the given position.
+     */
+    public int target(int edge)
+    {
+        return targets.get(edge);
+    }
+
+    /**
+     * Return the weight of the edge at the given position.
+     */
+    public double weight(int edge)
+    {
+        return edgeWeights.get(edge);
+    }
+
+    /**
+     * Create a MyGraph with the vertices and edges of the file. The vertices are added in index order
+     * and each edge list keeps its order, so the new graph traverses in the same order as the graph
+     * that was written.
+     *
+     * @return The new graph.
+     */
+    public MyGraph toGraph()
+    {
+        MyGraph graph = new MyGraph(directed);
+        for (int i = 0; i < numV; i++)
+        {
+            Vertex vertex = graph.newVertex(getLabel(i), getVertexWeight(i));
+            for (int p = propertyOffsets.get(i); p < propertyOffsets.get(i + 1); p++)
+                vertex.addProperty(string(propertyKeys.get(p)), string(propertyValues.get(p)));
+            graph.addVertex(vertex, getId(i));
+        }
+
+        int[] sources = new int[numE];
+        int[] dests = new int[numE];
+        double[] weights = new double[numE];
+        for (int i = 0; i < numV; i++)
+        {
+            for (int e = edgeStart(i); e < edgeEnd(i); e++)
+            {
+                sources[e] = getId(i);
+                dests[e] = getId(target(e));
+                weights[e] = weight(e);
+            }
+        }
+        // Both directions of undirected edges are in the file, so they are not mirrored again.
+        graph.addEdges(sources, dests, weights, numE, false);
+        return graph;
+    }
+
+    /**
+     * Decode the string with the given number, null for -1.
+     */
+    private String string(int number)
+    {
+        if (number == -1)
+            return null;
+        int start = stringOffsets.get(number);
+        byte[] bytes = new byte[stringOffsets.get(number + 1) - start];
+        strings.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,293 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class has static methods that find a minimum spanning tree of an undirected graph. If the graph
+ * is not connected, they find a minimum spanning forest. All of them run on the compressed snapshot of
+ * the graph.
+ *
+ * Three engines are available:
+ *   prim grows one tree at a time from its cheapest edge in an indexed binary heap, O((V + E) log V).
+ *   kruskal sorts the edges and adds each edge that joins two trees of a union-find, O(E log E).
+ *   boruvka lets every tree choose its cheapest edge to another tree in each round, which at least halves
+ *   the number of trees, O(E log V). The edges are scanned by the workers of a ForkJoinPool.
+ *
+ * kruskal and boruvka order the edges by weight, then by the smaller and the larger index of their
+ * vertices, so they find the same tree. prim may choose another edge of the same weight, but its total
+ * weight is the same.
+ *
+ * @author Yusuf Arslan
+ */
+public final class MinimumSpanningTree
+{
+    /**
+     * Number of vertices that a worker takes at once.
+     */
+    private static final int CHUNK = 1024;
+
+    /**
+     * Marks a tree that has no edge to another tree.
+     */
+    private static final long NONE = -1L;
+
+    // Prevent instantiate a MinimumSpanningTree class object
+    private MinimumSpanningTree() {}
+
+    /**
+     * Find a minimum spanning forest with Prim's algorithm. A new tree is started from the vertex with
+     * the smallest index that is not in a tree yet.
+     *
+     * @param graph The undirected graph.
+     * @return The edges of the forest and their total weight.
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static SpanningTree prim(MyGraph graph)
+    {
+        CsrGraph csr = snapshot(graph);
+        int n = csr.getNumV();
+        double[] key = new double[n];
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+
+        ArrayList<Edge> edges = new ArrayList<Edge>();
+        double total = 0;
+        int components = 0;
+        for (int root = 0; root < n; root++)
+        {
+            if (inTree[root])
+                continue;
+            components++;
+            parentEdge[root] = -1;
+            heap.offer(root, 0);
+            while (!heap.isEmpty())
+            {
+                int u = heap.poll();
+                inTree[u] = true;
+                if (parentEdge[u] != -1)
+                {
+                    edges.add(new Edge(csr.getId(parent[u]), csr.getId(u), csr.weight(parentEdge[u])));
+                    total += csr.weight(parentEdge[u]);
+                }
+                for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++)
+                {
+                    int v = csr.target(e);
+                    if (!inTree[v] && csr.weight(e) < key[v])
+                    {
+                        key[v] = csr.weight(e);
+                        parent[v] = u;
+                        parentEdge[v] = e;
+                        heap.offerOrDecrease(v, key[v]);
+                    }
+                }
+            }
+        }
+        return new SpanningTree(edges, total, components);
+    }
+
+    /**
+     * Find a minimum spanning forest with Kruskal's algorithm.
+     *
+     * @param graph The undirected graph.
+     * @return The edges of the forest and their total weight.
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static SpanningTree kruskal(MyGraph graph)
+    {
+        CsrGraph csr = snapshot(graph);
+        int n = csr.getNumV();
+
+        // Each undirected edge is taken once, from its vertex with the smaller index.
+        int m = 0;
+        int[] low = new int[csr.getNumE() / 2 + 1];
+        int[] high = new int[low.length];
+        double[] weights = new double[low.length];
+        for (int u = 0; u < n; u++)
+        {
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++)
+            {
+                if (u < csr.target(e))
+                {
+                    low[m] = u;
+                    high[m] = csr.target(e);
+                    weights[m++] = csr.weight(e);
+                }
+            }
+        }
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++)
+            order[i] = i;
+        sort(order, weights, low, high);
+
+        UnionFind sets = new UnionFind(n);
+        ArrayList<Edge> edges = new ArrayList<Edge>();
+        double total = 0;
+        for (int k = 0; k < m && sets.count() > 1; k++)
+        {
+            int i = order[k];
+            if (sets.union(low[i], high[i]))
+            {
+                edges.add(new Edge(csr.getId(low[i]), csr.getId(high[i]), weights[i]));
+                total += weights[i];
+            }
+        }
+        return new SpanningTree(edges, total, sets.count());
+    }
+
+    /**
+     * Find a minimum spanning forest with Boruvka's algorithm. The cheapest edges of the trees are found by
+     * the workers of the pool, and the trees are joined on the calling thread.
+     *
+     * @param graph The undirected graph.
+     * @param pool The pool that scans the edges, or null to scan them on the calling thread.
+     * @return The edges of the forest and their total weight.
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    public static SpanningTree boruvka(MyGraph graph, ForkJoinPool pool)
+    {
+        CsrGraph csr = snapshot(graph);
+        int n = csr.getNumV();
+        UnionFind sets = new UnionFind(n);
+        int[] label = new int[n];
+        for (int v = 0; v < n; v++)
+            label[v] = v;
+        // The cheapest edge of each tree, at the index of its root, as its vertex << 32 | its position.
+        AtomicLongArray cheapest = new AtomicLongArray(n);
+
+        ArrayList<Edge> edges = new ArrayList<Edge>();
+        double total = 0;
+        boolean joined = true;
+        while (joined)
+        {
+            for (int v = 0; v < n; v++)
+                cheapest.set(v, NONE);
+            Parallel.forEach(pool, (n + CHUNK - 1) / CHUNK, c -> {
+                for (int v = c * CHUNK; v < Math.min(n, (c + 1) * CHUNK); v++)
+                {
+                    for (int e = csr.edgeStart(v); e < csr.edgeEnd(v); e++)
+                    {
+                        if (label[v] != label[csr.target(e)])
+                            offer(csr, cheapest, label[v], (long) v << 32 | e);
+                    }
+                }
+            });
+
+            joined = false;
+            for (int root = 0; root < n; root++)
+            {
+                long edge = cheapest.get(root);
+                if (label[root] != root || edge == NONE)
+                    continue;
+                int u = (int) (edge >>> 32);
+                int e = (int) edge;
+                // Two trees may choose the same edge, it is added once.
+                if (sets.union(u, csr.target(e)))
+                {
+                    edges.add(new Edge(csr.getId(u), csr.getId(csr.target(e)), csr.weight(e)));
+                    total += csr.weight(e);
+                    joined = true;
+                }
+            }
+            for (int v = 0; v < n; v++)
+                label[v] = sets.find(v);
+        }
+        return new SpanningTree(edges, total, sets.count());
+    }
+
+    /**
+     * Return the snapshot of the graph.
+     *
+     * @throws IllegalArgumentException if the graph is directed
+     */
+    private static CsrGraph snapshot(MyGraph graph)
+    {
+        if (graph.isDirected())
+            throw new IllegalArgumentException("Spanning tree needs an undirected graph! - directed");
+        return graph.freeze();
+    }
+
+    /**
+     * Make the edge the cheapest edge of the tree if it is cheaper than the current one.
+     */
+    private static void offer(CsrGraph csr, AtomicLongArray cheapest, int tree, long edge)
+    {
+        long current = cheapest.get(tree);
+        while (current == NONE || isCheaper(csr, edge, current))
+        {
+            if (cheapest.compareAndSet(tree, current, edge))
+                return;
+            current = cheapest.get(tree);
+        }
+    }
+
+    /**
+     * Return true if the first edge comes before the second one. The edges are given as their vertex << 32
+     * | their position.
+     */
+    private static boolean isCheaper(CsrGraph csr, long a, long b)
+    {
+        int u1 = (int) (a >>> 32);
+        int e1 = (int) a;
+        int u2 = (int) (b >>> 32);
+        int e2 = (int) b;
+        return compare(csr.weight(e1), Math.min(u1, csr.target(e1)), Math.max(u1, csr.target(e1)),
+                       csr.weight(e2), Math.min(u2, csr.target(e2)), Math.max(u2, csr.target(e2))) < 0;
+    }
+
+    /**
+     * Compare two edges by weight, then by their smaller vertex index, then by their larger one.
+     */
+    private static int compare(double w1, int low1, int high1, double w2, int low2, int high2)
+    {
+        if (w1 != w2)
+            return Double.compare(w1, w2);
+        if (low1 != low2)
+            return Integer.compare(low1, low2);
+        return Integer.compare(high1, high2);
+    }
+
+    /**
+     * Sort the edge numbers by their edges with a bottom-up merge sort.
+     */
+    private static void sort(int[] order, double[] weights, int[] low, int[] high)
+    {
+        int[] buffer = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2)
+        {
+            for (int lo = 0; lo < order.length - width; lo += 2 * width)
+            {
+                int mid = lo + width;
+                int hi = Math.min(lo + 2 * width, order.length);
+                System.arraycopy(order, lo, buffer, lo, hi - lo);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi)
+                {
+                    int a = buffer[i];
+                    int b = buffer[j];
+                    if (compare(weights[b], low[b], high[b], weights[a], low[a], high[a]) < 0)
+                    {
+                        order[k++] = b;
+                        j++;
+                    }
+                    else
+                    {
+                        order[k++] = a;
+                        i++;
+                    }
+                }
+                while (i < mid)
+                    order[k++] = buffer[i++];
+                while (j < hi)
+                    order[k++] = buffer[j++];
+            }
+        }
+    }
+}
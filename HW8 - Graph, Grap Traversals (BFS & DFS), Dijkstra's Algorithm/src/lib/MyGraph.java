@@ -18,8 +18,24 @@ public class MyGraph implements DynamicGraph {
         private int id;
         private String label;
         private double weight;
+
+        /**
+         * Properties of a vertex that is not in a graph, null if it has none. The properties of a vertex
+         * in a graph are kept in the columns of the graph.
+         */
         private HashMap<String, String> properties;
 
+        /**
+         * The row of the vertex in the property columns of its graph, -1 if it has no properties there.
+         */
+        private int row = -1;
+
+        /**
+         * The graph that the vertex belongs to, null if it is not added to a graph.
+         * The graph is informed when a property or the label changes, so its indexes stay correct.
+         */
+        private MyGraph graph;
+
         // Constructor
         /**
          * Constructor for Vertex with given label and weight.
@@ -32,7 +48,6 @@ public class MyGraph implements DynamicGraph {
             this.id = -1;
             this.label = label;
             this.weight = weight;
-            this.properties = new HashMap<String, String>();
         }
 
         /**
@@ -46,19 +61,17 @@ public class MyGraph implements DynamicGraph {
             this.id = id;
             this.label = label;
             this.weight = weight;
-            this.properties = new HashMap<String, String>();
         }
         
         /**
          * Construct a vertex with given ID.
-         * This method will be used as anoymous object when searching required in the graph.
+         * This method is used to create the vertices of a graph that is constructed with the number of vertices.
          * @param id
          */
         private Vertex(int id) {
             this.id = id;
             this.label = "";
             this.weight = UNWEIGHTED_VERTEX;
-            this.properties = new HashMap<String, String>();
         }
          
 
@@ -69,6 +82,13 @@ public class MyGraph implements DynamicGraph {
          * @param value The value of the property
          */
         public void addProperty(String key, String value) {
+            if (graph != null) {
+                graph.checkWritable();
+                graph.setProperty(this, key, value);
+                return;
+            }
+            if (properties == null)
+                properties = new HashMap<String, String>();
             properties.put(key, value);
         }
 
@@ -79,7 +99,51 @@ public class MyGraph implements DynamicGraph {
          * @return The value of the property
          */
         public String getProperty(String key) {
-            return properties.get(key);
+            if (graph != null)
+                return (row == -1) ? null : graph.propertyStore.get(row, key);
+            return (properties == null) ? null : properties.get(key);
+        }
+
+        /**
+         * Return true if the vertex has a property with the given key.
+         * 
+         * @param key The key of the property
+         */
+        public boolean hasProperty(String key) {
+            if (graph != null)
+                return row != -1 && graph.propertyStore.has(row, key);
+            return properties != null && properties.get(key) != null;
+        }
+
+        /**
+         * Get the value of the property with the given key as a double. A numeric property of a vertex in
+         * a graph is stored as a number, so it is not parsed again.
+         * 
+         * @param key The key of the property
+         * @param missing The value to return if the vertex does not have the property
+         * @return The value of the property
+         * @throws NumberFormatException if the value is not a number
+         */
+        public double getDoubleProperty(String key, double missing) {
+            if (graph != null)
+                return (row == -1) ? missing : graph.propertyStore.getDouble(row, key, missing);
+            String value = getProperty(key);
+            return (value == null) ? missing : Double.parseDouble(value);
+        }
+
+        /**
+         * Get the value of the property with the given key as a long.
+         * 
+         * @param key The key of the property
+         * @param missing The value to return if the vertex does not have the property
+         * @return The value of the property
+         * @throws NumberFormatException if the value is not a long
+         */
+        public long getLongProperty(String key, long missing) {
+            if (graph != null)
+                return (row == -1) ? missing : graph.propertyStore.getLong(row, key, missing);
+            String value = getProperty(key);
+            return (value == null) ? missing : Long.parseLong(value);
         }
         
         /**
@@ -87,7 +151,7 @@ public class MyGraph implements DynamicGraph {
          * 
          * @param id The id of the user.
          */
-        private void setId(int id) {
+        void setId(int id) {
             this.id = id;
         }
 
@@ -124,7 +188,12 @@ public class MyGraph implements DynamicGraph {
          * @param label The label of the button.
          */
         public void setLabel(String label) {
+            if (graph != null)
+                graph.checkWritable();
+            String oldLabel = this.label;
             this.label = label;
+            if (graph != null)
+                graph.labelChanged(this, oldLabel, label);
         }
 
         /**
@@ -132,10 +201,21 @@ public class MyGraph implements DynamicGraph {
          * 
          * @return The label of the card.
          */
-        private String getLabel() {
+        String getLabel() {
             return label;
         }
 
+        /**
+         * Return the properties of the vertex. It is used to copy the vertex to a file.
+         * 
+         * @return The unmodifiable map of the properties.
+         */
+        Map<String, String> getProperties() {
+            if (graph != null)
+                return (row == -1) ? Collections.emptyMap() : Collections.unmodifiableMap(graph.propertyStore.toMap(row));
+            return (properties == null) ? Collections.emptyMap() : Collections.unmodifiableMap(properties);
+        }
+
         /**
          * Hash code for the vertex object.
          */
@@ -163,11 +243,12 @@ public class MyGraph implements DynamicGraph {
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         protected Object clone() {
             // Clone all the properties and return a new Vertex object.
             Vertex newVertex = new Vertex(label, weight);
-            newVertex.properties = (HashMap<String, String>) properties.clone();
+            Map<String, String> copied = getProperties();
+            if (!copied.isEmpty())
+                newVertex.properties = new HashMap<String, String>(copied);
             return newVertex;
         }
         /**
@@ -179,6 +260,11 @@ public class MyGraph implements DynamicGraph {
         }
     }
     
+    /**
+     * Initial length of the vertex index.
+     */
+    private static final int INITIAL_INDEX_CAPACITY = 16;
+
     /**
      * Static int to keep track of next available ID.
      */
@@ -195,9 +281,76 @@ public class MyGraph implements DynamicGraph {
 	private boolean directed;
 
     /**
-     * The adjacency list of the graph.
+     * The adjacency list of the graph. The edges of a vertex are indexed by their destinations
+     * when the vertex has many edges.
      */
-    private HashMap<Vertex, List<Edge>> adjList;
+    private HashMap<Vertex, AdjacencyList> adjList;
+
+    /**
+     * The edges that enter each vertex of a directed graph, identified by their sources. They refer to the
+     * same edges as adjList. Null for an undirected graph, whose edges enter a vertex as they leave it.
+     */
+    private HashMap<Vertex, AdjacencyList> inEdges;
+
+    /**
+     * Sources, destinations and weights of the edges that adjList and inEdges refer to.
+     */
+    private final EdgeStore edgeStore = new EdgeStore();
+
+    /**
+     * Vertices by their IDs, null for the IDs that are removed or not used yet.
+     * IDs are given in increasing order and never reused, so the array stays dense.
+     */
+    private Vertex[] vertexIndex;
+
+    /**
+     * Vertices whose IDs are too large for the vertex index. A subgraph keeps the IDs of the
+     * original graph, so its IDs can be sparse. Null until it is needed.
+     */
+    private HashMap<Integer, Vertex> sparseIndex;
+
+    /**
+     * Label index which maps each label to the IDs of the vertices with that label.
+     * Null until createLabelIndex is called.
+     */
+    private HashMap<String, Set<Integer>> labelIndex;
+
+    /**
+     * Property indexes which map an indexed property key to its values, and each value to the IDs
+     * of the vertices that have it. Only the keys given to createPropertyIndex are indexed.
+     */
+    private HashMap<String, HashMap<String, Set<Integer>>> propertyIndex;
+
+    /**
+     * Properties of the vertices, in one column for each key.
+     */
+    private final PropertyStore propertyStore = new PropertyStore();
+
+    /**
+     * The last snapshot that is created by freeze, null if the graph has been changed after it.
+     */
+    private CsrGraph frozen;
+
+    /**
+     * Modification counter. It is increased by every change of the vertices, the edges, the labels or
+     * the properties, so two equal versions mean the same graph.
+     */
+    private long version;
+
+    /**
+     * Listeners that are notified of the changes, null until a listener is added.
+     */
+    private ArrayList<GraphListener> listeners;
+
+    /**
+     * True while removeVertex removes the edges of the vertex, so they are not reported one by one.
+     */
+    private boolean muted;
+
+    /**
+     * True if the graph cannot be changed anymore, see makeReadOnly.
+     */
+    private boolean readOnly;
 
     /**
      * Construct a graph setting directed to false.
@@ -212,7 +365,10 @@ public class MyGraph implements DynamicGraph {
     public MyGraph(boolean directed) {
         this.numV = 0;
         this.directed = directed;
-        this.adjList = new HashMap<Vertex, List<Edge>>();
+        this.adjList = new HashMap<Vertex, AdjacencyList>();
+        if (directed)
+            this.inEdges = new HashMap<Vertex, AdjacencyList>();
+        this.vertexIndex = new Vertex[INITIAL_INDEX_CAPACITY];
     }
 
     /**
@@ -221,9 +377,18 @@ public class MyGraph implements DynamicGraph {
     public MyGraph(int numV, boolean directed) {
         this.numV = numV;
         this.directed = directed;
-        this.adjList = new HashMap<Vertex, List<Edge>>();
+        // The map is created with its final size, so it is not rehashed while the vertices are added.
+        this.adjList = new HashMap<Vertex, AdjacencyList>((int) (numV / 0.75f) + 1);
+        if (directed)
+            this.inEdges = new HashMap<Vertex, AdjacencyList>((int) (numV / 0.75f) + 1);
+        this.vertexIndex = new Vertex[Math.max(numV, INITIAL_INDEX_CAPACITY)];
         for (int i = 0; i < numV; i++) {
-            this.adjList.put(new Vertex(i), new LinkedList<Edge>());
+            Vertex vertex = new Vertex(i);
+            vertex.graph = this;
+            this.adjList.put(vertex, new AdjacencyList());
+            if (directed)
+                this.inEdges.put(vertex, new AdjacencyList());
+            this.vertexIndex[i] = vertex;
         }
         NEXT_ID = numV;
     }
@@ -252,19 +417,39 @@ public class MyGraph implements DynamicGraph {
      */
     @Override
 public void insert(Edge edge) {
-    
-    // Do not allow duplicate edges.
-    if (isEdge(edge.getSource(), edge.getDest()))
-        return;
-    
-    List<Edge> sourceEdges = adjList.get(new Vertex(edge.getSource()));
-    sourceEdges.add(edge);
-    if (!isDirected() && edge.getSource() != edge.getDest()) {
-        List<Edge> destEdges = adjList.get(new Vertex(edge.getDest()));
-        destEdges.add(new Edge(edge.getDest(), edge.getSource(), edge.getWeight()));
-    }
+    insert(edge.getSource(), edge.getDest(), edge.getWeight(), edge);
 }
 
+    /**
+     * Insert the edge into the edge store and the lists of its vertices. An undirected edge takes one slot
+     * that both of its vertices refer to. The given edge is only reported to the listeners, a view of the
+     * stored edge is created for them if it is null.
+     */
+    private void insert(int source, int dest, double weight, Edge edge) {
+        checkWritable();
+        AdjacencyList sourceEdges = edgesOf(source);
+        // Do not allow duplicate edges.
+        if (sourceEdges.contains(dest))
+            return;
+
+        structureChanged();
+        int ref = edgeStore.allocate(source, dest, weight);
+        sourceEdges.add(dest, ref);
+        if (isDirected()) {
+            AdjacencyList destEdges = inEdgesOf(dest);
+            if (destEdges != null)
+                destEdges.add(source, ref);
+        }
+        else if (source != dest) {
+            edgesOf(dest).add(source, EdgeStore.reverse(ref));
+        }
+        if (listeners != null) {
+            Edge inserted = (edge != null) ? edge : edgeStore.view(ref);
+            for (GraphListener listener : listeners)
+                listener.edgeInserted(inserted);
+        }
+    }
+
     /**
      * If the source vertex has an edge to the destination vertex, return true, otherwise return false.
      * 
@@ -275,12 +460,12 @@ public void insert(Edge edge) {
     @Override
     public boolean isEdge(int source, int dest) {
         // Get the edge list of source vertex and check if edge exists. 
-        return adjList.get(new Vertex(source)).
-                       contains(new Edge(source, dest));
+        return edgesOf(source).contains(dest);
     }
 
     /**
-     * Get the edge from the source vertex to the destination vertex.
+     * Get the edge from the source vertex to the destination vertex. The edge is a view of the stored
+     * edge, created by this call, so it does not change when the weight of the edge is changed later.
      * 
      * @param source The id of the source vertex.
      * @param dest The id of the destination vertex.
@@ -289,22 +474,101 @@ public void insert(Edge edge) {
     @Override
     public Edge getEdge(int source, int dest) {
         // Get the edge list of source vertex and return the edge if it is exists, or null.
-        List<Edge> edges = adjList.get(new Vertex(source));
-        if (edges == null || !edges.contains(new Edge(source, dest)))
+        AdjacencyList edges = edgesOf(source);
+        if (edges == null)
             return null;
 
-        return edges.get(edges.indexOf(new Edge(source, dest)));
+        int ref = edges.get(dest);
+        return (ref == EdgeStore.NONE) ? null : edgeStore.view(ref);
+    }
+
+    /**
+     * Return the weight of the edge from the source vertex to the destination vertex. Unlike getEdge, it
+     * does not create an object.
+     * 
+     * @param source The id of the source vertex.
+     * @param dest The id of the destination vertex.
+     * @param missing The value that is returned if there is no such edge.
+     * @return The weight of the edge, or missing.
+     */
+    public double getEdgeWeight(int source, int dest, double missing) {
+        AdjacencyList edges = edgesOf(source);
+        int ref = (edges == null) ? EdgeStore.NONE : edges.get(dest);
+        return (ref == EdgeStore.NONE) ? missing : edgeStore.weight(ref);
+    }
+
+    /**
+     * Return an iterator over the edges that enter the vertex with the given id. The edges are the same
+     * edges that edgeIterator gives for their sources, so the source of each edge is a predecessor of the
+     * vertex. Like edgeIterator, it creates a new Edge for each edge. The iterator cannot remove edges.
+     * 
+     * @param id The id of the vertex.
+     * @return An iterator of the edges that enter the vertex.
+     */
+    public Iterator<Edge> inEdgeIterator(int id) {
+        PrimitiveIterator.OfInt refs = isDirected() ? inEdgesOf(id).iterator() : edgesOf(id).iterator();
+        return new Iterator<Edge>() {
+            @Override
+            public boolean hasNext() {
+                return refs.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                int ref = refs.nextInt();
+                // An undirected edge enters the vertex as the reverse of an edge that leaves it.
+                if (!isDirected() && edgeStore.dest(ref) != id)
+                    ref = EdgeStore.reverse(ref);
+                return edgeStore.view(ref);
+            }
+        };
+    }
+
+    /**
+     * Return the number of edges that enter the vertex with the given id.
+     * 
+     * @param id The id of the vertex.
+     * @return The in-degree of the vertex.
+     */
+    public int inDegree(int id) {
+        return isDirected() ? inEdgesOf(id).size() : edgesOf(id).size();
     }
 
     /**
-     * Return an iterator over the edges of the vertex with the given id.
+     * Return an iterator over the edges of the vertex with the given id. Each call of next creates a new
+     * Edge, so the iterator allocates one object for each edge; getEdgeWeight and the snapshot of freeze
+     * read the edges without allocating. The remove method of the iterator removes the last edge from the
+     * graph.
      * 
      * @param id The id of the vertex to get the edge iterator for.
      * @return An iterator of edges.
      */
     @Override
     public Iterator<Edge> edgeIterator(int id) {
-        return adjList.get(new Vertex(id)).iterator();
+        PrimitiveIterator.OfInt refs = edgesOf(id).iterator();
+        return new Iterator<Edge>() {
+            private int last = EdgeStore.NONE;
+
+            @Override
+            public boolean hasNext() {
+                return refs.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                last = refs.nextInt();
+                return edgeStore.view(last);
+            }
+
+            @Override
+            public void remove() {
+                checkWritable();
+                refs.remove();
+                structureChanged();
+                unlink(last);
+                last = EdgeStore.NONE;
+            }
+        };
     }
 
     /**
@@ -327,56 +591,381 @@ public void insert(Edge edge) {
      */
     @Override
     public void addVertex(Vertex vertex) {
+        checkWritable();
+        structureChanged();
         vertex.setId(NEXT_ID++);
-        adjList.put(vertex, new LinkedList<Edge>());
+        adjList.put(vertex, new AdjacencyList());
+        if (inEdges != null)
+            inEdges.put(vertex, new AdjacencyList());
+        indexVertex(vertex);
         numV++;
+        if (listeners != null) {
+            for (GraphListener listener : listeners)
+                listener.vertexAdded(vertex);
+        }
     }
 
-    private void addVertex(Vertex vertex, int id) {
+    /**
+     * Add a vertex with the given ID. It is used to keep the IDs of the vertices in a subgraph
+     * and the IDs that are read from a file. The ID must not be used by another vertex.
+     */
+    void addVertex(Vertex vertex, int id) {
+        checkWritable();
+        structureChanged();
         vertex.setId(id);
-        adjList.put(vertex, new LinkedList<Edge>());
+        adjList.put(vertex, new AdjacencyList());
+        if (inEdges != null)
+            inEdges.put(vertex, new AdjacencyList());
+        indexVertex(vertex);
+        NEXT_ID = Math.max(NEXT_ID, id + 1);
         numV++;
+        if (listeners != null) {
+            for (GraphListener listener : listeners)
+                listener.vertexAdded(vertex);
+        }
+    }
+
+    /**
+     * Put the vertex to the vertex index and to the secondary indexes. The vertex index grows if the ID
+     * does not fit, unless the IDs are sparse. Then the vertex is kept in the sparse index.
+     */
+    private void indexVertex(Vertex vertex) {
+        int id = vertex.getId();
+        if (id >= vertexIndex.length) {
+            int length = Math.max(vertexIndex.length * 2, id + 1);
+            if (length <= 4 * (numV + INITIAL_INDEX_CAPACITY)) {
+                vertexIndex = Arrays.copyOf(vertexIndex, length);
+                // Move the sparse vertices that fit into the grown index.
+                if (sparseIndex != null) {
+                    Iterator<Vertex> sparse = sparseIndex.values().iterator();
+                    while (sparse.hasNext()) {
+                        Vertex current = sparse.next();
+                        if (current.getId() < length) {
+                            vertexIndex[current.getId()] = current;
+                            sparse.remove();
+                        }
+                    }
+                }
+            }
+        }
+        if (id < vertexIndex.length) {
+            vertexIndex[id] = vertex;
+        }
+        else {
+            if (sparseIndex == null)
+                sparseIndex = new HashMap<Integer, Vertex>();
+            sparseIndex.put(id, vertex);
+        }
+
+        // The properties of the vertex are moved to the columns of the graph.
+        if (vertex.properties != null) {
+            vertex.row = propertyStore.allocate();
+            propertyStore.putAll(vertex.row, vertex.properties);
+            vertex.properties = null;
+        }
+        vertex.graph = this;
+        if (labelIndex != null)
+            addToIndex(labelIndex, vertex.getLabel(), id);
+        if (propertyIndex != null) {
+            for (Map.Entry<String, HashMap<String, Set<Integer>>> index : propertyIndex.entrySet()) {
+                addToIndex(index.getValue(), vertex.getProperty(index.getKey()), id);
+            }
+        }
+    }
+
+    /**
+     * Remove the vertex from the vertex index and from the secondary indexes.
+     */
+    private void unindexVertex(Vertex vertex) {
+        int id = vertex.getId();
+        if (id < vertexIndex.length)
+            vertexIndex[id] = null;
+        else
+            sparseIndex.remove(id);
+
+        // The removed vertex keeps its properties in its own map.
+        if (vertex.row != -1) {
+            HashMap<String, String> removed = propertyStore.toMap(vertex.row);
+            vertex.properties = removed.isEmpty() ? null : removed;
+            propertyStore.release(vertex.row);
+            vertex.row = -1;
+        }
+        vertex.graph = null;
+        if (labelIndex != null)
+            removeFromIndex(labelIndex, vertex.getLabel(), id);
+        if (propertyIndex != null) {
+            for (Map.Entry<String, HashMap<String, Set<Integer>>> index : propertyIndex.entrySet()) {
+                removeFromIndex(index.getValue(), vertex.getProperty(index.getKey()), id);
+            }
+        }
+    }
+
+    /**
+     * Add the ID to the set of the given value. Null values are not indexed.
+     */
+    private static void addToIndex(HashMap<String, Set<Integer>> index, String value, int id) {
+        if (value == null)
+            return;
+        Set<Integer> ids = index.get(value);
+        if (ids == null) {
+            ids = new HashSet<Integer>();
+            index.put(value, ids);
+        }
+        ids.add(id);
+    }
+
+    /**
+     * Remove the ID from the set of the given value. Empty sets are removed.
+     */
+    private static void removeFromIndex(HashMap<String, Set<Integer>> index, String value, int id) {
+        if (value == null)
+            return;
+        Set<Integer> ids = index.get(value);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty())
+                index.remove(value);
+        }
+    }
+
+    /**
+     * Called when a vertex or an edge is added or removed. The snapshot is dropped and the version is increased.
+     */
+    private void structureChanged() {
+        frozen = null;
+        version++;
+    }
+
+    /**
+     * Make the graph read-only. Its compressed snapshot is created first, and after that every method that
+     * would change the graph, its vertices, its indexes or its listeners throws, so the graph can be read
+     * by many threads without locks once it is safely published. It is used for the snapshots of
+     * ConcurrentGraph.
+     */
+    void makeReadOnly() {
+        freeze();
+        readOnly = true;
+    }
+
+    /**
+     * Called before a change of the graph.
+     * 
+     * @throws UnsupportedOperationException if the graph is read-only
+     */
+    void checkWritable() {
+        if (readOnly)
+            throw new UnsupportedOperationException("The graph is read-only!");
+    }
+
+    /**
+     * Add a listener that is notified after every change of the graph, except label changes.
+     * 
+     * @param listener The listener to be added.
+     */
+    public void addGraphListener(GraphListener listener) {
+        checkWritable();
+        if (listeners == null)
+            listeners = new ArrayList<GraphListener>();
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove the listener, it is not notified anymore.
+     * 
+     * @param listener The listener to be removed.
+     */
+    public void removeGraphListener(GraphListener listener) {
+        checkWritable();
+        if (listeners != null)
+            listeners.remove(listener);
+    }
+
+    /**
+     * Notify the listeners of a change that has no specific method.
+     */
+    private void fireGraphChanged() {
+        if (listeners != null) {
+            for (GraphListener listener : listeners)
+                listener.graphChanged();
+        }
+    }
+
+    /**
+     * Called by GraphBatch after it has changed the edge lists. The version is increased once for the
+     * whole batch.
+     */
+    void batchApplied() {
+        structureChanged();
+        fireGraphChanged();
+    }
+
+    /**
+     * Return the modification counter of the graph. It increases after every change of the vertices, the
+     * edges, the labels or the properties, so a result that is computed at one version is still valid while
+     * the version stays the same.
+     * 
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Called by a vertex of this graph to set one of its properties in the columns.
+     */
+    private void setProperty(Vertex vertex, String key, String value) {
+        String oldValue = null;
+        if (propertyIndex != null && propertyIndex.containsKey(key))
+            oldValue = vertex.getProperty(key);
+        if (vertex.row == -1 && value != null)
+            vertex.row = propertyStore.allocate();
+        if (vertex.row != -1)
+            propertyStore.set(vertex.row, key, value);
+        propertyChanged(vertex, key, oldValue, value);
+    }
+
+    /**
+     * Called when a property of a vertex of this graph changes.
+     */
+    private void propertyChanged(Vertex vertex, String key, String oldValue, String newValue) {
+        version++;
+        if (propertyIndex != null && propertyIndex.containsKey(key)) {
+            HashMap<String, Set<Integer>> index = propertyIndex.get(key);
+            removeFromIndex(index, oldValue, vertex.getId());
+            addToIndex(index, newValue, vertex.getId());
+        }
+        if (listeners != null) {
+            for (GraphListener listener : listeners)
+                listener.propertyChanged(vertex, key);
+        }
+    }
+
+    /**
+     * Called by a vertex of this graph when its label changes.
+     */
+    private void labelChanged(Vertex vertex, String oldLabel, String newLabel) {
+        version++;
+        if (labelIndex == null)
+            return;
+        removeFromIndex(labelIndex, oldLabel, vertex.getId());
+        addToIndex(labelIndex, newLabel, vertex.getId());
+    }
+
+    /**
+     * Create an index from labels to vertices, so that removeVertex(String) does not search all
+     * vertices. The index is kept up to date by addVertex, removeVertex and setLabel.
+     */
+    public void createLabelIndex() {
+        checkWritable();
+        if (labelIndex != null)
+            return;
+        labelIndex = new HashMap<String, Set<Integer>>();
+        for (Vertex vertex : adjList.keySet()) {
+            addToIndex(labelIndex, vertex.getLabel(), vertex.getId());
+        }
+    }
+
+    /**
+     * Create an index from the values of the given property to vertices, so that filterVertices with
+     * this key only visits the vertices that match. The index is kept up to date by addVertex,
+     * removeVertex and addProperty.
+     * 
+     * @param key The key of the property to be indexed.
+     */
+    public void createPropertyIndex(String key) {
+        checkWritable();
+        if (propertyIndex == null)
+            propertyIndex = new HashMap<String, HashMap<String, Set<Integer>>>();
+        if (propertyIndex.containsKey(key))
+            return;
+        HashMap<String, Set<Integer>> index = new HashMap<String, Set<Integer>>();
+        for (Vertex vertex : adjList.keySet()) {
+            addToIndex(index, vertex.getProperty(key), vertex.getId());
+        }
+        propertyIndex.put(key, index);
     }
 
     /**
      * If the graph is not directed, remove all edges in the destination vertices and then set the
-     * corresponding vertex to null
+     * corresponding vertex to null. If it is directed, the edges that enter the vertex are found in its
+     * in-edges, so only the edges of the vertex are visited.
      * 
      * @param id The id of the vertex to be removed.
+     * @throws IllegalArgumentException if there is no vertex with the id
      */
     @Override
     public void removeVertex(int id) {
+        checkWritable();
+        Vertex removed = getVertex(id);
+        if (removed == null)
+            throw new IllegalArgumentException("There is no vertex with the ID! - " + id);
+        structureChanged();
+        muted = true;
+        try {
+            unlinkVertex(id);
+        }
+        finally {
+            muted = false;
+        }
+        // Then set corresponding vertex to null.
+        adjList.remove(removed);
+        if (inEdges != null)
+            inEdges.remove(removed);
+        unindexVertex(removed);
+        // Add the id to the queue of removed vertices.
+        numV--;
+        fireGraphChanged();
+    }
+
+    /**
+     * Remove all edges of the vertex from the lists of the other vertices and release their slots.
+     */
+    private void unlinkVertex(int id) {
         // Remove all edges in the destination vertices.
         if (!isDirected()) {
             // If graph is not directed, find all edges in destination vertices and remove them.
-            Iterator<Edge> edgeIterator = edgeIterator(id);
-            while (edgeIterator.hasNext()) {
-                Edge edge = edgeIterator.next();
-                edgeIterator.remove();
-                removeEdge(edge.getDest(), edge.getSource());
+            PrimitiveIterator.OfInt refs = edgesOf(id).iterator();
+            while (refs.hasNext()) {
+                int ref = refs.nextInt();
+                refs.remove();
+                unlink(ref);
             }
         }
         else {
-            // If graph is directed, remove all edges that connected to the vertex.
-            Iterator<Vertex> vertices = adjList.keySet().iterator();
-            while (vertices.hasNext()) {
-                Vertex current = vertices.next();
-                removeEdge(current.getId(), id);
+            // If graph is directed, remove the edges that enter the vertex from their sources, and the edges
+            // that leave the vertex from the in-edges of their destinations.
+            PrimitiveIterator.OfInt refs = inEdgesOf(id).iterator();
+            while (refs.hasNext()) {
+                int ref = refs.nextInt();
+                edgesOf(edgeStore.source(ref)).remove(id);
+                edgeStore.release(ref);
+            }
+            refs = edgesOf(id).iterator();
+            while (refs.hasNext()) {
+                int ref = refs.nextInt();
+                if (inEdgesOf(edgeStore.dest(ref)) != null)
+                    inEdgesOf(edgeStore.dest(ref)).remove(id);
+                edgeStore.release(ref);
             }
         }
-        // Then set corresponding vertex to null.
-        adjList.remove(new Vertex(id));
-        // Add the id to the queue of removed vertices.
-        numV--;
     }
 
     /**
-     * Find the vertex with the given label and remove it.
+     * Find the vertex with the given label and remove it. If the labels are indexed and more than one
+     * vertex has the label, the one with the smallest ID is removed.
      * 
      * @param label The label of the vertex to remove.
      */
     @Override
     public void removeVertex(String label) {
+        checkWritable();
+        if (labelIndex != null) {
+            Set<Integer> ids = labelIndex.get(label);
+            if (ids != null)
+                removeVertex(Collections.min(ids));
+            return;
+        }
+
         // Find the vertex with the given label and remove it.
         Iterator<Vertex> vertices = adjList.keySet().iterator();
         
@@ -402,10 +991,90 @@ public void insert(Edge edge) {
      */
     @Override
     public void addEdge(int source, int dest, double weight) {
-        // Create edge with IDs of source and destination and weight.
-        Edge edge = new Edge(source, dest, weight);
-        
-        insert(edge);
+        // The edge is only stored, no Edge object is created for it.
+        insert(source, dest, weight, null);
+    }
+
+    /**
+     * Insert many edges at once. The result is the same as calling addEdge for each edge in the given order,
+     * so duplicate edges are skipped, but it is much faster for large inputs.
+     * 
+     * The edges are grouped by their source IDs with a radix sort which keeps their order, so the scratch
+     * space and the work depend on the number of edges and not on the IDs of the vertices. Then each edge
+     * list grows once for all of its edges, and a duplicate is found by the hash index of the list.
+     * 
+     * @param sources The source IDs of the edges.
+     * @param dests The destination IDs of the edges.
+     * @param weights The weights of the edges.
+     * @param count The number of edges to be taken from the arrays.
+     * @throws IllegalArgumentException if an edge refers to a vertex that is not in the graph
+     */
+    public void addEdges(int[] sources, int[] dests, double[] weights, int count) {
+        addEdges(sources, dests, weights, count, !isDirected());
+    }
+
+    /**
+     * Insert many edges at once. If mirror is false, an edge is only added to the list of its source even
+     * if the graph is undirected. Then the input must have both directions of each undirected edge, and the
+     * edge lists get exactly the order of the input. It is used to restore a graph from its snapshot.
+     */
+    void addEdges(int[] sources, int[] dests, double[] weights, int count, boolean mirror) {
+        checkWritable();
+        for (int i = 0; i < count; i++) {
+            if (getVertex(sources[i]) == null || getVertex(dests[i]) == null)
+                throw new IllegalArgumentException("There is no vertex for the edge! - (" + sources[i] + "," + dests[i] + ")");
+        }
+        structureChanged();
+        edgeStore.ensureCapacity(edgeStore.size() + count);
+
+        // Sort the edges by the lists they are added to. 2 * i is the edge i, 2 * i + 1 is its reverse, and
+        // a mirrored edge is also added to the list of its destination. The sort keeps the order of the input
+        // in each list, and its scratch space depends on the number of edges, not on the IDs.
+        int touches = count;
+        for (int i = 0; i < count; i++) {
+            if (mirror && sources[i] != dests[i])
+                touches++;
+        }
+        int[] lists = new int[touches];
+        int[] order = new int[touches];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            lists[position] = sources[i];
+            order[position++] = 2 * i;
+            if (mirror && sources[i] != dests[i]) {
+                lists[position] = dests[i];
+                order[position++] = 2 * i + 1;
+            }
+        }
+        RadixSort.sort(lists, order, touches);
+
+        // Add the edges of each source. The lists are filled in the order of their IDs, so the reverse of an
+        // undirected edge to a smaller ID is already stored, and the edge shares its slot.
+        boolean directed = isDirected();
+        int end;
+        for (int start = 0; start < touches; start = end) {
+            int id = lists[start];
+            end = start + 1;
+            while (end < touches && lists[end] == id)
+                end++;
+            AdjacencyList edges = edgesOf(id);
+            edges.ensureCapacity(edges.size() + end - start);
+            for (int k = start; k < end; k++) {
+                int i = order[k] >>> 1;
+                int dest = (order[k] & 1) == 0 ? dests[i] : sources[i];
+                if (edges.contains(dest))
+                    continue;
+                int ref = (!directed && dest < id) ? edgesOf(dest).get(id) : EdgeStore.NONE;
+                if (ref != EdgeStore.NONE)
+                    ref = EdgeStore.reverse(ref);
+                else
+                    ref = edgeStore.allocate(id, dest, weights[i]);
+                edges.add(dest, ref);
+                if (inEdges != null)
+                    inEdgesOf(dest).add(id, ref);
+            }
+        }
+        fireGraphChanged();
     }
 
     /**
@@ -416,77 +1085,142 @@ public void insert(Edge edge) {
     public boolean removeEdge(int source, int dest) {
         // Remove the edge from the vertices.
 
+        checkWritable();
         // Get list of edges from source vertex.
-        List<Edge> sourceEdges = adjList.get(new Vertex(source));
+        AdjacencyList sourceEdges = edgesOf(source);
+
+        int ref = sourceEdges.remove(dest);
+        if (ref == EdgeStore.NONE)
+            return false;
+        structureChanged();
+        unlink(ref);
+        return true;
+    }
+
+    /**
+     * Remove the edge from the list of its destination, report it to the listeners and free its slot. The
+     * edge must already be removed from the list of its source.
+     */
+    private void unlink(int ref) {
+        int source = edgeStore.source(ref);
+        int dest = edgeStore.dest(ref);
+        if (isDirected()) {
+            if (inEdgesOf(dest) != null)
+                inEdgesOf(dest).remove(source);
+        }
+        else if (source != dest)
+            edgesOf(dest).remove(source);
 
-        boolean removed = sourceEdges.remove(new Edge(source, dest));
+        if (listeners != null && !muted) {
+            Edge removed = edgeStore.view(ref);
+            for (GraphListener listener : listeners)
+                listener.edgeRemoved(removed);
+        }
+        edgeStore.release(ref);
+    }
+
+    /**
+     * Change the weight of the edge from source to dest. If the graph is not directed, the weight of
+     * the reverse edge is changed as well.
+     * 
+     * @param source The id of the source vertex.
+     * @param dest The id of the destination vertex.
+     * @param weight The new weight.
+     * @return True if the edge is in the graph.
+     */
+    public boolean setEdgeWeight(int source, int dest, double weight) {
+        checkWritable();
+        AdjacencyList edges = edgesOf(source);
+        int ref = (edges == null) ? EdgeStore.NONE : edges.get(dest);
+        if (ref == EdgeStore.NONE)
+            return false;
 
-        if (removed && !isDirected() && source != dest)
-            adjList.get(new Vertex(dest)).remove(new Edge(dest, source));
+        // Both directions of an undirected edge share the slot, so both of them change.
+        structureChanged();
+        double oldWeight = edgeStore.weight(ref);
+        edgeStore.setWeight(ref, weight);
 
-        return removed;
+        if (listeners != null) {
+            Edge edge = edgeStore.view(ref);
+            for (GraphListener listener : listeners)
+                listener.edgeWeightChanged(edge, oldWeight);
+        }
+        return true;
     }
 
     /**
      * We create a new array with the number of vertices. Then, we change ID's to 0-based index. To
      * compress the matrix, we will ignore null indexes and store wieghts from 0 to number of vertices.
+     * The matrix is created from the compressed snapshot of the graph, so the indexes are the same
+     * as the indexes of freeze(). The dense matrix is only created for small graphs, exportSparseMatrix
+     * or GraphWriter.writeAdjacencyMatrix should be used for the others.
      * 
      * @return The adjacency matrix of the graph.
+     * @throws IllegalStateException if the graph has more vertices than CsrGraph.MAX_DENSE_SIZE
      */
     @Override
     public double[][] exportAdjacencyMatrix() {
-        
-        // To create the adjacency matrix, create a new array with the number of vertices.
-        // Then, change ID's to 0-based index. 
-        // To compress the matrix, we will ignore null 
-        // indexes and store wieghts from 0 to number of vertices.
-
-        // Create the adjacency matrix.
-        double adjacencyMatix[][] = new double[numV][numV];
-        // Fill the array with Double.POSITIVE_INFINITY.
-        for (int i = 0; i < numV; i++) {
-            for (int j = 0; j < numV; j++) {
-                adjacencyMatix[i][j] = Double.POSITIVE_INFINITY;
-            }
-        }
-
-        // Iterate through the vertices and rearrange the previous IDs with the matrix graph IDs from 0 to n - 1.
-        Iterator<Vertex> vertices = adjList.keySet().iterator();
-        HashMap<Integer, Integer> idMap = new HashMap<Integer, Integer>();
-        for (int i = 0; i < numV; i++)
-        {
-            Vertex current = vertices.next();
-            idMap.put(current.getId(), i);
-        }
+        return freeze().toAdjacencyMatrix();
+    }
 
-        vertices = adjList.keySet().iterator();
-        while (vertices.hasNext()) {
-            Vertex current = vertices.next();
-            // Get the list of edges from the current vertex.
-            List<Edge> edges = adjList.get(current);
-            // Iterate through the edges.
-            for (Edge edge : edges) {
-                // Set the weight of the edge in the adjacency matrix.
-                adjacencyMatix[idMap.get(current.getId())][idMap.get(edge.getDest())] = edge.getWeight();
-            }
-        }
+    /**
+     * Export the graph as a sparse adjacency matrix, which can be read in CSR or COO form. The indexes
+     * are the same as the indexes of exportAdjacencyMatrix.
+     * 
+     * @return The sparse adjacency matrix of the graph.
+     */
+    public SparseMatrix exportSparseMatrix() {
+        return freeze().toSparseMatrix();
+    }
 
-        return adjacencyMatix;
+    /**
+     * Return a read-only compressed sparse row snapshot of the graph. The snapshot is created once and
+     * returned again until the graph is changed by insert, addEdge, removeEdge, addVertex or removeVertex,
+     * so many traversals between two changes share the same snapshot.
+     * 
+     * @return The snapshot of the current graph.
+     */
+    public CsrGraph freeze() {
+        if (frozen == null)
+            frozen = new CsrGraph(this);
+        return frozen;
     }
 
+    /**
+     * Create a subgraph with the vertices whose property with the given key is equal to the filter, and
+     * the edges between them. Vertices that do not have the property are not included. If the property
+     * is indexed, only the matching vertices are visited.
+     * 
+     * @param key The key of the property.
+     * @param filter The value that the property should have.
+     * @return The subgraph. Its vertices are copies and keep their IDs.
+     */
     @Override
     public MyGraph filterVertices(String key, String filter) {
         
         MyGraph filteredGraph = new MyGraph(isDirected());
 
-        // Iterate through the vertices and add the vertices that match the filter.
-        Iterator<Vertex> vertices = adjList.keySet().iterator();
-        
-        while (vertices.hasNext()) {
-            Vertex current = vertices.next();
-            if (current.getProperty(key).equals(filter))
-            {
-                filteredGraph.addVertex(((Vertex)current.clone()), current.getId());
+        if (propertyIndex != null && propertyIndex.containsKey(key)) {
+            // Take the matching vertices from the index.
+            Set<Integer> ids = propertyIndex.get(key).get(filter);
+            if (ids != null) {
+                for (int id : ids) {
+                    Vertex current = getVertex(id);
+                    filteredGraph.addVertex(((Vertex)current.clone()), id);
+                }
+            }
+        }
+        else {
+            // Iterate through the vertices and add the vertices that match the filter.
+            Iterator<Vertex> vertices = adjList.keySet().iterator();
+            
+            while (vertices.hasNext()) {
+                Vertex current = vertices.next();
+                String value = current.getProperty(key);
+                if (value != null && value.equals(filter))
+                {
+                    filteredGraph.addVertex(((Vertex)current.clone()), current.getId());
+                }
             }
         }
 
@@ -494,11 +1228,12 @@ public void insert(Edge edge) {
         while (filteredVertices.hasNext()) {
             Vertex current = filteredVertices.next();
             // Get the list of edges from the current vertex.
-            List<Edge> edges = adjList.get(current);
-            for (Edge edge : edges) {
-                if (filteredGraph.getVertex(edge.getDest()) != null)
+            PrimitiveIterator.OfInt refs = edgesOf(current.getId()).iterator();
+            while (refs.hasNext()) {
+                int ref = refs.nextInt();
+                if (filteredGraph.getVertex(edgeStore.dest(ref)) != null)
                 {
-                    filteredGraph.addEdge(edge.getSource(), edge.getDest(), edge.getWeight());
+                    filteredGraph.addEdge(current.getId(), edgeStore.dest(ref), edgeStore.weight(ref));
                 }
             }
         }
@@ -532,14 +1267,40 @@ public void insert(Edge edge) {
      * @return Vertex with the given ID, null if it does not exists.
      */
     public Vertex getVertex(int id) {
-        Iterator<Vertex> vertices = adjList.keySet().iterator();
-        while (vertices.hasNext()) {
-            Vertex current = vertices.next();
-            if (current.getId() == id) {
-                return current;
-            }
-        }
-        return null;
+        if (id >= 0 && id < vertexIndex.length)
+            return vertexIndex[id];
+        return sparseIndex == null ? null : sparseIndex.get(id);
+    }
+
+    /**
+     * Get the edge list of the vertex with the given ID.
+     * @param id
+     * @return Edge list of the vertex, null if the vertex does not exists.
+     */
+    AdjacencyList edgesOf(int id) {
+        Vertex vertex = getVertex(id);
+        if (vertex == null)
+            return null;
+        return adjList.get(vertex);
+    }
+    
+    /**
+     * Get the store of the edges that the edge lists refer to.
+     */
+    EdgeStore edgeStore() {
+        return edgeStore;
+    }
+
+    /**
+     * Get the in-edge list of the vertex with the given ID in a directed graph.
+     * @param id
+     * @return In-edge list of the vertex, null if the vertex does not exists.
+     */
+    AdjacencyList inEdgesOf(int id) {
+        Vertex vertex = getVertex(id);
+        if (vertex == null)
+            return null;
+        return inEdges.get(vertex);
     }
     
     /**
@@ -567,7 +1328,7 @@ public void insert(Edge edge) {
 
     // They are not safe but necessary for the project.
     public Set<Vertex> getVertices() {
-        return adjList.keySet();
+        return readOnly ? Collections.unmodifiableSet(adjList.keySet()) : adjList.keySet();
     }
     
 }
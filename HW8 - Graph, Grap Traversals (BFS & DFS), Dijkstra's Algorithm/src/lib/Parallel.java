@@ -0,0 +1,37 @@
+package lib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * This class runs the chunks of a parallel engine on the workers of a ForkJoinPool.
+ *
+ * @author Yusuf Arslan
+ */
+final class Parallel
+{
+    // Prevent instantiate a Parallel class object
+    private Parallel() {}
+
+    /**
+     * Run the body for the numbers from 0 to count - 1 on the workers of the pool and wait for them. If the
+     * pool is null or there is only one number, the body runs on the calling thread.
+     *
+     * @param pool The pool, or null.
+     * @param count The number of chunks.
+     * @param body The work of one chunk.
+     */
+    static void forEach(ForkJoinPool pool, int count, IntConsumer body)
+    {
+        if (pool == null || count == 1)
+        {
+            for (int c = 0; c < count; c++)
+                body.accept(c);
+        }
+        else if (count > 1)
+        {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+        }
+    }
+}
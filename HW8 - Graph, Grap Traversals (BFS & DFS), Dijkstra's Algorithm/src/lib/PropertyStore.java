@@ -0,0 +1,476 @@
+package lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PropertyStore keeps the properties of the vertices of one graph in columns, one column for each key.
+ *
+ * A vertex gets a row when it is given its first property, and the rows of the removed vertices are used
+ * again, so the rows stay dense. The keys are interned to column numbers. The type of a column is chosen
+ * by its values:
+ *   LONG if every value is a long that is written as Long.toString writes it, for example "42".
+ *   DOUBLE if every value is a double that is written as Double.toString writes it, for example "2.5",
+ *   or such a long. A bit remembers the longs, so "2" is not read back as "2.0".
+ *   STRING otherwise. Each distinct value is kept once in the dictionary of the column, and the rows keep
+ *   its number. A value is removed from the dictionary when no row uses it.
+ * A column is converted to a wider type when a value does not fit, so getProperty always returns the
+ * string that is given to addProperty, and the typed getters do not parse the numbers again.
+ *
+ * @author Yusuf Arslan
+ */
+final class PropertyStore
+{
+    // Data Fields
+    /**
+     * Column number of each key.
+     */
+    private final HashMap<String, Integer> keys = new HashMap<String, Integer>();
+    private final ArrayList<String> keyNames = new ArrayList<String>();
+    private Column[] columns = new Column[4];
+
+    /**
+     * Number of rows that have been given, and the given rows that are free again.
+     */
+    private int rows;
+    private int[] free = new int[16];
+    private int freeCount;
+
+    // Methods
+    /**
+     * Return a new empty row.
+     */
+    int allocate()
+    {
+        return (freeCount > 0) ? free[--freeCount] : rows++;
+    }
+
+    /**
+     * Remove the values of the row and make it free.
+     */
+    void release(int row)
+    {
+        for (int k = 0; k < keyNames.size(); k++)
+            columns[k].remove(row);
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, 2 * freeCount);
+        free[freeCount++] = row;
+    }
+
+    /**
+     * Return the value of the key in the row as a string, null if the row does not have it.
+     */
+    String get(int row, String key)
+    {
+        Column column = column(key);
+        return (column == null || !column.has(row)) ? null : column.get(row);
+    }
+
+    /**
+     * Return true if the row has a value for the key.
+     */
+    boolean has(int row, String key)
+    {
+        Column column = column(key);
+        return column != null && column.has(row);
+    }
+
+    /**
+     * Return the value of the key in the row as a double, or the given value if the row does not have it.
+     *
+     * @throws NumberFormatException if the value is not a number
+     */
+    double getDouble(int row, String key, double missing)
+    {
+        Column column = column(key);
+        return (column == null || !column.has(row)) ? missing : column.getDouble(row);
+    }
+
+    /**
+     * Return the value of the key in the row as a long, or the given value if the row does not have it.
+     *
+     * @throws NumberFormatException if the value is not a long
+     */
+    long getLong(int row, String key, long missing)
+    {
+        Column column = column(key);
+        return (column == null || !column.has(row)) ? missing : column.getLong(row);
+    }
+
+    /**
+     * Set the value of the key in the row, a null value removes it.
+     */
+    void set(int row, String key, String value)
+    {
+        Integer number = keys.get(key);
+        if (number == null)
+        {
+            if (value == null)
+                return;
+            number = keyNames.size();
+            keys.put(key, number);
+            keyNames.add(key);
+            if (number == columns.length)
+                columns = Arrays.copyOf(columns, 2 * number);
+            columns[number] = isLong(value) ? new LongColumn() : isDouble(value) ? new DoubleColumn()
+                                                                                 : new StringColumn();
+        }
+        Column column = columns[number];
+        if (value == null)
+        {
+            column.remove(row);
+            return;
+        }
+        if (!column.set(row, value))
+        {
+            column = column.widen(value, rows);
+            columns[number] = column;
+            column.set(row, value);
+        }
+    }
+
+    /**
+     * Return the properties of the row as a new map.
+     */
+    HashMap<String, String> toMap(int row)
+    {
+        HashMap<String, String> map = new HashMap<String, String>();
+        for (int k = 0; k < keyNames.size(); k++)
+        {
+            if (columns[k].has(row))
+                map.put(keyNames.get(k), columns[k].get(row));
+        }
+        return map;
+    }
+
+    /**
+     * Set all properties of the map in the row.
+     */
+    void putAll(int row, Map<String, String> properties)
+    {
+        for (Map.Entry<String, String> property : properties.entrySet())
+            set(row, property.getKey(), property.getValue());
+    }
+
+    /**
+     * Return the column of the key, null if no row has ever had the key.
+     */
+    private Column column(String key)
+    {
+        Integer number = keys.get(key);
+        return (number == null) ? null : columns[number];
+    }
+
+    /**
+     * Return true if the value is a long written as Long.toString writes it.
+     */
+    private static boolean isLong(String value)
+    {
+        int start = value.startsWith("-") ? 1 : 0;
+        if (value.length() <= start || value.length() > 20)
+            return false;
+        for (int i = start; i < value.length(); i++)
+        {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9')
+                return false;
+        }
+        try
+        {
+            return Long.toString(Long.parseLong(value)).equals(value);
+        }
+        catch (NumberFormatException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Return true if the value is a double written as Double.toString writes it.
+     */
+    private static boolean isDouble(String value)
+    {
+        if (value.isEmpty())
+            return false;
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != 'E')
+                return false;
+        }
+        try
+        {
+            return Double.toString(Double.parseDouble(value)).equals(value);
+        }
+        catch (NumberFormatException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Values of one key, by row. Arrays grow when a larger row is set.
+     */
+    private abstract static class Column
+    {
+        /**
+         * Rows that have a value, one bit for each row.
+         */
+        long[] present = new long[1];
+
+        boolean has(int row)
+        {
+            int word = row >>> 6;
+            return word < present.length && (present[word] & (1L << row)) != 0;
+        }
+
+        void remove(int row)
+        {
+            if (has(row))
+                present[row >>> 6] &= ~(1L << row);
+        }
+
+        /**
+         * Mark the row as present and grow the arrays to fit it.
+         */
+        void mark(int row)
+        {
+            if ((row >>> 6) >= present.length)
+                present = Arrays.copyOf(present, Math.max(2 * present.length, (row >>> 6) + 1));
+            present[row >>> 6] |= 1L << row;
+            grow(row + 1);
+        }
+
+        abstract void grow(int size);
+
+        abstract String get(int row);
+
+        abstract double getDouble(int row);
+
+        abstract long getLong(int row);
+
+        /**
+         * Set the value of the row, return false without a change if it does not fit the column.
+         */
+        abstract boolean set(int row, String value);
+
+        /**
+         * Return a column of a wider type with the same values, the value must fit it.
+         */
+        Column widen(String value, int rows)
+        {
+            Column wider = new StringColumn();
+            for (int row = 0; row < rows; row++)
+            {
+                if (has(row))
+                    wider.set(row, get(row));
+            }
+            return wider;
+        }
+    }
+
+    private static final class LongColumn extends Column
+    {
+        long[] values = new long[0];
+
+        @Override
+        void grow(int size)
+        {
+            if (size > values.length)
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size));
+        }
+
+        @Override
+        String get(int row)
+        {
+            return Long.toString(values[row]);
+        }
+
+        @Override
+        double getDouble(int row)
+        {
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row)
+        {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, String value)
+        {
+            if (!isLong(value))
+                return false;
+            mark(row);
+            values[row] = Long.parseLong(value);
+            return true;
+        }
+
+        @Override
+        Column widen(String value, int rows)
+        {
+            if (!isDouble(value))
+                return super.widen(value, rows);
+            // Doubles keep the longs exactly up to 2^53.
+            for (int row = 0; row < rows; row++)
+            {
+                if (has(row) && Math.abs(values[row]) > (1L << 53))
+                    return super.widen(value, rows);
+            }
+            DoubleColumn wider = new DoubleColumn();
+            for (int row = 0; row < rows; row++)
+            {
+                if (has(row))
+                    wider.set(row, get(row));
+            }
+            return wider;
+        }
+    }
+
+    private static final class DoubleColumn extends Column
+    {
+        double[] values = new double[0];
+
+        /**
+         * Rows whose values are written as longs.
+         */
+        long[] longForm = new long[1];
+
+        @Override
+        void grow(int size)
+        {
+            if (size > values.length)
+                values = Arrays.copyOf(values, Math.max(2 * values.length, size));
+            if (((size - 1) >>> 6) >= longForm.length)
+                longForm = Arrays.copyOf(longForm, present.length);
+        }
+
+        @Override
+        String get(int row)
+        {
+            return ((longForm[row >>> 6] & (1L << row)) != 0) ? Long.toString((long) values[row])
+                                                               : Double.toString(values[row]);
+        }
+
+        @Override
+        double getDouble(int row)
+        {
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row)
+        {
+            if ((longForm[row >>> 6] & (1L << row)) == 0)
+                throw new NumberFormatException("For input string: \"" + get(row) + "\"");
+            return (long) values[row];
+        }
+
+        @Override
+        boolean set(int row, String value)
+        {
+            boolean isLong = isLong(value) && Math.abs(Long.parseLong(value)) <= (1L << 53);
+            if (!isLong && !isDouble(value))
+                return false;
+            mark(row);
+            values[row] = Double.parseDouble(value);
+            if (isLong)
+                longForm[row >>> 6] |= 1L << row;
+            else
+                longForm[row >>> 6] &= ~(1L << row);
+            return true;
+        }
+    }
+
+    private static final class StringColumn extends Column
+    {
+        /**
+         * Number of the value of each row in the dictionary.
+         */
+        int[] codes = new int[0];
+
+        HashMap<String, Integer> dictionary = new HashMap<String, Integer>();
+        ArrayList<String> strings = new ArrayList<String>();
+
+        /**
+         * Number of rows that use each value, a value is removed when it reaches 0.
+         */
+        int[] uses = new int[4];
+        int[] freeCodes = new int[4];
+        int freeCodeCount;
+
+        @Override
+        void grow(int size)
+        {
+            if (size > codes.length)
+                codes = Arrays.copyOf(codes, Math.max(2 * codes.length, size));
+        }
+
+        @Override
+        String get(int row)
+        {
+            return strings.get(codes[row]);
+        }
+
+        @Override
+        double getDouble(int row)
+        {
+            return Double.parseDouble(get(row));
+        }
+
+        @Override
+        long getLong(int row)
+        {
+            return Long.parseLong(get(row));
+        }
+
+        @Override
+        void remove(int row)
+        {
+            if (has(row))
+                release(codes[row]);
+            super.remove(row);
+        }
+
+        @Override
+        boolean set(int row, String value)
+        {
+            Integer code = dictionary.get(value);
+            if (code == null)
+            {
+                code = (freeCodeCount > 0) ? freeCodes[--freeCodeCount] : strings.size();
+                if (code == strings.size())
+                    strings.add(value);
+                else
+                    strings.set(code, value);
+                dictionary.put(value, code);
+                if (code >= uses.length)
+                    uses = Arrays.copyOf(uses, 2 * uses.length);
+            }
+            uses[code]++;
+            if (has(row))
+                release(codes[row]);
+            mark(row);
+            codes[row] = code;
+            return true;
+        }
+
+        /**
+         * Decrease the uses of the value and remove it from the dictionary if no row uses it.
+         */
+        private void release(int code)
+        {
+            if (--uses[code] == 0)
+            {
+                dictionary.remove(strings.get(code));
+                strings.set(code, null);
+                if (freeCodeCount == freeCodes.length)
+                    freeCodes = Arrays.copyOf(freeCodes, 2 * freeCodeCount);
+                freeCodes[freeCodeCount++] = code;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package lib;
+
+import java.util.Arrays;
+
+/**
+ * This class sorts int keys together with an int value for each key with a least significant digit radix
+ * sort, for the engines that group their work by vertex IDs.
+ *
+ * @author Yusuf Arslan
+ */
+final class RadixSort
+{
+    // Data Fields
+    /**
+     * Number of bits that one pass sorts by.
+     */
+    private static final int BITS = 8;
+    private static final int RADIX = 1 << BITS;
+
+    // Prevent instantiate a RadixSort class object
+    private RadixSort() {}
+
+    /**
+     * Sort the first count keys, which must not be negative, and move the value of each key with it. The
+     * keys that are equal keep the order of their values. Each pass sorts by 8 bits of the keys, up to the
+     * highest bit of the largest key, and a pass is skipped if all keys have the same 8 bits, so the work is
+     * O(count) for each byte of the largest key.
+     *
+     * @param keys The keys, sorted in place.
+     * @param values The value of each key, moved with the keys.
+     * @param count The number of keys.
+     */
+    static void sort(int[] keys, int[] values, int count)
+    {
+        int max = 0;
+        for (int k = 0; k < count; k++)
+            max |= keys[k];
+
+        int[] fromKeys = keys;
+        int[] fromValues = values;
+        int[] toKeys = new int[count];
+        int[] toValues = new int[count];
+        int[] start = new int[RADIX];
+        for (int shift = 0; shift < Integer.SIZE && (max >>> shift) != 0; shift += BITS)
+        {
+            Arrays.fill(start, 0);
+            for (int k = 0; k < count; k++)
+                start[(fromKeys[k] >>> shift) & (RADIX - 1)]++;
+            if (start[(fromKeys[0] >>> shift) & (RADIX - 1)] == count)
+                continue;
+
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++)
+            {
+                int digitCount = start[digit];
+                start[digit] = position;
+                position += digitCount;
+            }
+            for (int k = 0; k < count; k++)
+            {
+                int to = start[(fromKeys[k] >>> shift) & (RADIX - 1)]++;
+                toKeys[to] = fromKeys[k];
+                toValues[to] = fromValues[k];
+            }
+            int[] swap = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swap;
+            swap = fromValues;
+            fromValues = toValues;
+            toValues = swap;
+        }
+        if (fromKeys != keys)
+        {
+            System.arraycopy(fromKeys, 0, keys, 0, count);
+            System.arraycopy(fromValues, 0, values, 0, count);
+        }
+    }
+}
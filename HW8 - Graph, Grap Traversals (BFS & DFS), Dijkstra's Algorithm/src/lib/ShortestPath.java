@@ -0,0 +1,86 @@
+package lib;
+
+import java.util.Collections;
+import java.util.List;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * ShortestPath is the result of a query between two vertices. It keeps the vertices of the path from the
+ * start vertex to the target vertex, the distance of the target, and the number of vertices that the
+ * search settled to find it.
+ *
+ * If the target cannot be reached, the path is empty and the distance is Double.POSITIVE_INFINITY.
+ *
+ * @author Yusuf Arslan
+ */
+public final class ShortestPath
+{
+    // Data Fields
+    private final List<Vertex> path;
+    private final double distance;
+    private final int settled;
+
+    /**
+     * Create the result of a query.
+     *
+     * @param path The vertices of the path, empty if there is no path.
+     * @param distance The distance of the target.
+     * @param settled The number of settled vertices.
+     */
+    ShortestPath(List<Vertex> path, double distance, int settled)
+    {
+        this.path = Collections.unmodifiableList(path);
+        this.distance = distance;
+        this.settled = settled;
+    }
+
+    // Methods
+    /**
+     * Return true if there is a path from the start vertex to the target vertex.
+     */
+    public boolean isFound()
+    {
+        return !path.isEmpty();
+    }
+
+    /**
+     * Return the vertices of the path, from the start vertex to the target vertex.
+     */
+    public List<Vertex> getPath()
+    {
+        return path;
+    }
+
+    /**
+     * Return the distance of the target vertex, with the boosting values applied.
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * Return the number of vertices that the search settled.
+     */
+    public int getSettled()
+    {
+        return settled;
+    }
+
+    /**
+     * Return the IDs of the path and its distance.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (Vertex v : path)
+        {
+            if (sb.length() > 0)
+                sb.append(" -> ");
+            sb.append(v.getId());
+        }
+        return "Path: " + (isFound() ? sb : "none") + ", Distance: " + distance;
+    }
+}
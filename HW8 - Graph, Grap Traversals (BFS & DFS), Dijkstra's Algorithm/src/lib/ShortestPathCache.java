@@ -0,0 +1,172 @@
+package lib;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lib.MyGraph.Vertex;
+
+/**
+ * ShortestPathCache keeps the shortest path trees of the recently used start vertices of one graph.
+ *
+ * A tree is valid only for the version of the graph that it is computed at, so the trees are keyed by
+ * the start vertex and the version. Every change of the graph increases its version, so when the cache
+ * sees a new version all of its trees are dropped at once. When the cache is full, the least recently
+ * used tree is evicted.
+ *
+ * The methods are synchronized, so the cache can be shared by many threads. The trees are computed
+ * with the heap version of Dijkstra's algorithm, so they are the same as the results of Dijkstras.dijkstras.
+ *
+ * @author Yusuf Arslan
+ */
+public final class ShortestPathCache
+{
+    // Data Fields
+    private final MyGraph graph;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees;
+
+    /**
+     * Version of the graph that the cached trees belong to.
+     */
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Create an empty cache for the graph.
+     *
+     * @param graph The graph.
+     * @param capacity The largest number of trees in the cache.
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public ShortestPathCache(MyGraph graph, int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity should be positive! - " + capacity);
+        this.graph = graph;
+        this.version = graph.getVersion();
+        // Access order makes the first entry the least recently used one.
+        this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest)
+            {
+                if (size() <= capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    // Methods
+    /**
+     * Return the shortest path tree of the start vertex at the current version of the graph. It is
+     * computed only if it is not in the cache.
+     *
+     * @param start The starting vertex
+     * @return The tree.
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public synchronized ShortestPathTree tree(Vertex start)
+    {
+        if (version != graph.getVersion())
+        {
+            invalidations += trees.size();
+            trees.clear();
+            version = graph.getVersion();
+        }
+        ShortestPathTree tree = trees.get(start.getId());
+        if (tree != null)
+        {
+            hits++;
+            return tree;
+        }
+
+        misses++;
+        CsrGraph csr = graph.freeze();
+        int n = csr.getNumV();
+        int s = Dijkstras.indexOf(csr, start);
+        double[] distance = new double[n];
+        int[] previous = new int[n];
+        Dijkstras.search(csr, null, s, -1, distance, previous, new boolean[n], new IndexedMinHeap(n));
+        tree = new ShortestPathTree(csr, s, distance, previous);
+        trees.put(start.getId(), tree);
+        return tree;
+    }
+
+    /**
+     * Fill the maps as Dijkstras.dijkstras does, from the cached tree of the start vertex.
+     *
+     * @param start The starting vertex
+     * @param pred A map of vertices to their predecessors.
+     * @param dist A map of vertices to their distances from the start vertex.
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    public void dijkstras(Vertex start, Map<Vertex,Vertex> pred, Map<Vertex, Double> dist)
+    {
+        ShortestPathTree tree = tree(start);
+        CsrGraph csr = tree.getGraph();
+        for (int i = 0; i < csr.getNumV(); i++)
+        {
+            if (csr.getId(i) != start.getId())
+            {
+                dist.put(csr.getVertex(i), tree.distance(i));
+                pred.put(csr.getVertex(i), csr.getVertex(tree.predecessor(i)));
+            }
+        }
+    }
+
+    /**
+     * Return the number of trees in the cache.
+     */
+    public synchronized int size()
+    {
+        return trees.size();
+    }
+
+    /**
+     * Return the number of queries that are answered from the cache.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Return the number of queries that computed a tree.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Return the number of trees that are evicted because the cache was full.
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Return the number of trees that are dropped because the graph was changed.
+     */
+    public synchronized long getInvalidations()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Return the metrics of the cache.
+     */
+    @Override
+    public synchronized String toString()
+    {
+        return "Trees: " + trees.size() + ", Hits: " + hits + ", Misses: " + misses
+               + ", Evictions: " + evictions + ", Invalidations: " + invalidations;
+    }
+}
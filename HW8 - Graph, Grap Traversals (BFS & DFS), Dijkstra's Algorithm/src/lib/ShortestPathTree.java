@@ -0,0 +1,79 @@
+package lib;
+
+/**
+ * ShortestPathTree is the result of a single source search on a CsrGraph. It keeps the distance and the
+ * predecessor of each vertex index in primitive arrays.
+ *
+ * A vertex that cannot be reached has distance Double.POSITIVE_INFINITY and the source as its predecessor,
+ * as in the maps of Dijkstras.dijkstras. The source itself has distance 0 and is its own predecessor; the
+ * maps leave the start vertex out instead.
+ *
+ * @author Yusuf Arslan
+ */
+public final class ShortestPathTree
+{
+    // Data Fields
+    private final CsrGraph graph;
+    private final int source;
+    private final double[] distance;
+    private final int[] previous;
+
+    /**
+     * Create the tree from the arrays of a search. The arrays are not copied, and the distance of the
+     * source is set to 0.
+     */
+    ShortestPathTree(CsrGraph graph, int source, double[] distance, int[] previous)
+    {
+        this.graph = graph;
+        this.source = source;
+        this.distance = distance;
+        this.previous = previous;
+        distance[source] = 0;
+    }
+
+    // Methods
+    /**
+     * Return the snapshot that the indexes of the tree belong to.
+     */
+    public CsrGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Return the ID of the source vertex.
+     */
+    public int getSourceId()
+    {
+        return graph.getId(source);
+    }
+
+    /**
+     * Return the distance of the vertex with the given index.
+     */
+    public double distance(int index)
+    {
+        return distance[index];
+    }
+
+    /**
+     * Return the index of the predecessor of the vertex with the given index.
+     */
+    public int predecessor(int index)
+    {
+        return previous[index];
+    }
+
+    /**
+     * Return the distance of the vertex with the given ID.
+     *
+     * @throws IllegalArgumentException if there is no vertex with the ID
+     */
+    public double distanceTo(int id)
+    {
+        int index = graph.indexOf(id);
+        if (index == -1)
+            throw new IllegalArgumentException("There is no vertex with the ID! - " + id);
+        return distance[index];
+    }
+}
@@ -0,0 +1,67 @@
+package lib;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SpanningTree is the result of a minimum spanning tree engine. It keeps the edges of the tree and their
+ * total weight. If the graph is not connected, it is a minimum spanning forest with one tree for each
+ * connected component.
+ *
+ * @author Yusuf Arslan
+ */
+public final class SpanningTree
+{
+    // Data Fields
+    private final List<Edge> edges;
+    private final double totalWeight;
+    private final int components;
+
+    /**
+     * Create the result of an engine.
+     *
+     * @param edges The edges of the tree, from a vertex in the tree to the vertex it connects.
+     * @param totalWeight The sum of the weights of the edges.
+     * @param components The number of trees.
+     */
+    SpanningTree(List<Edge> edges, double totalWeight, int components)
+    {
+        this.edges = Collections.unmodifiableList(edges);
+        this.totalWeight = totalWeight;
+        this.components = components;
+    }
+
+    // Methods
+    /**
+     * Return the edges of the tree in the order the engine has chosen them.
+     */
+    public List<Edge> getEdges()
+    {
+        return edges;
+    }
+
+    /**
+     * Return the sum of the weights of the edges.
+     */
+    public double getTotalWeight()
+    {
+        return totalWeight;
+    }
+
+    /**
+     * Return the number of trees, 1 if the graph is connected.
+     */
+    public int getComponentCount()
+    {
+        return components;
+    }
+
+    /**
+     * Return the number of edges and the total weight.
+     */
+    @Override
+    public String toString()
+    {
+        return "Edges: " + edges.size() + ", Total Weight: " + totalWeight + ", Components: " + components;
+    }
+}
@@ -0,0 +1,148 @@
+package lib;
+
+import java.util.Arrays;
+
+/**
+ * SparseMatrix is the adjacency matrix of a graph that keeps only the edges. Rows and columns are the
+ * vertex indexes of MyGraph.freeze(), so they are the same as the indexes of exportAdjacencyMatrix.
+ *
+ * The matrix can be read in two forms:
+ *   CSR: the entries of row i are in the positions from getRowOffsets()[i] to getRowOffsets()[i + 1] - 1
+ *   of getColumns() and getValues().
+ *   COO: the entry at position k is (getRows()[k], getColumns()[k], getValues()[k]).
+ * Both forms share the column and value arrays, and the entries are ordered by row. A missing entry means
+ * Double.POSITIVE_INFINITY, as in the dense matrix.
+ *
+ * The returned arrays are not copied, so they must not be changed.
+ *
+ * @author Yusuf Arslan
+ */
+public final class SparseMatrix
+{
+    // Data Fields
+    /**
+     * Number of rows and columns.
+     */
+    private final int size;
+
+    /**
+     * Entries of the row i are in the positions from rowOffsets[i] to rowOffsets[i + 1] - 1.
+     */
+    private final int[] rowOffsets;
+
+    /**
+     * Column of each entry.
+     */
+    private final int[] columns;
+
+    /**
+     * Value of each entry.
+     */
+    private final double[] values;
+
+    /**
+     * Row of each entry. It is created when the COO form is asked for.
+     */
+    private int[] rows;
+
+    /**
+     * Create the matrix from the arrays of the CSR form. The arrays are not copied.
+     */
+    SparseMatrix(int size, int[] rowOffsets, int[] columns, double[] values)
+    {
+        this.size = size;
+        this.rowOffsets = rowOffsets;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    // Methods
+    /**
+     * Return the number of rows, which is also the number of columns.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Return the number of entries.
+     */
+    public int getNonZeros()
+    {
+        return columns.length;
+    }
+
+    /**
+     * Return the row offsets of the CSR form, it has getSize() + 1 elements.
+     */
+    public int[] getRowOffsets()
+    {
+        return rowOffsets;
+    }
+
+    /**
+     * Return the row of each entry, the row array of the COO form.
+     */
+    public int[] getRows()
+    {
+        if (rows == null)
+        {
+            int[] created = new int[columns.length];
+            for (int i = 0; i < size; i++)
+                Arrays.fill(created, rowOffsets[i], rowOffsets[i + 1], i);
+            rows = created;
+        }
+        return rows;
+    }
+
+    /**
+     * Return the column of each entry.
+     */
+    public int[] getColumns()
+    {
+        return columns;
+    }
+
+    /**
+     * Return the value of each entry.
+     */
+    public double[] getValues()
+    {
+        return values;
+    }
+
+    /**
+     * Return the value at the given row and column, Double.POSITIVE_INFINITY if there is no entry.
+     * The entries of the row are searched linearly.
+     */
+    public double get(int row, int column)
+    {
+        for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++)
+        {
+            if (columns[k] == column)
+                return values[k];
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Create the dense form of the matrix.
+     *
+     * @return The dense matrix, missing entries are Double.POSITIVE_INFINITY.
+     * @throws IllegalStateException if the matrix has more rows than CsrGraph.MAX_DENSE_SIZE
+     */
+    public double[][] toDense()
+    {
+        if (size > CsrGraph.MAX_DENSE_SIZE)
+            throw new IllegalStateException("Matrix is too large for the dense form! - " + size);
+        double[][] matrix = new double[size][size];
+        for (int i = 0; i < size; i++)
+        {
+            Arrays.fill(matrix[i], Double.POSITIVE_INFINITY);
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++)
+                matrix[i][columns[k]] = values[k];
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,91 @@
+package lib;
+
+/**
+ * UnionFind keeps a partition of the integers 0 to size - 1 into disjoint sets.
+ *
+ * Each set is a tree whose root represents it. union links the root of the smaller tree under the root
+ * of the larger one, and find halves the path to the root while it walks it, so a sequence of operations
+ * costs almost O(1) per operation. find is a loop, so deep trees cannot overflow the stack.
+ *
+ * @author Yusuf Arslan
+ */
+final class UnionFind
+{
+    // Data Fields
+    /**
+     * Parent of each element, an element is a root if it is its own parent.
+     */
+    private final int[] parent;
+
+    /**
+     * Number of elements in the tree of each root.
+     */
+    private final int[] size;
+
+    /**
+     * Number of sets.
+     */
+    private int count;
+
+    /**
+     * Create size sets with one element each.
+     *
+     * @param size The number of elements.
+     */
+    UnionFind(int size)
+    {
+        parent = new int[size];
+        this.size = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            parent[i] = i;
+            this.size[i] = 1;
+        }
+        count = size;
+    }
+
+    // Methods
+    /**
+     * Return the root of the set of the element.
+     */
+    int find(int x)
+    {
+        while (parent[x] != x)
+        {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merge the sets of the two elements.
+     *
+     * @return True if they were in different sets.
+     */
+    boolean union(int a, int b)
+    {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB)
+            return false;
+        if (size[rootA] < size[rootB])
+        {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        count--;
+        return true;
+    }
+
+    /**
+     * Return the number of sets.
+     */
+    int count()
+    {
+        return count;
+    }
+}